@@ -2,13 +2,27 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import ui.FxTableInterface;
+import ui.FxUserInterface;
+import ui.Workspace;
 
 import java.io.IOException;
 
 public class App extends javafx.application.Application {
     @Override
     public void start(Stage stage) throws IOException {
+        Workspace workspace = new Workspace();
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/ui/MainSplitPane.fxml"));
+        // included views inherit the factory, so both controllers share one workspace
+        loader.setControllerFactory(type -> {
+            if (type == FxUserInterface.class) {
+                return new FxUserInterface(workspace);
+            }
+            if (type == FxTableInterface.class) {
+                return new FxTableInterface(workspace);
+            }
+            throw new IllegalArgumentException("Unknown controller " + type.getName());
+        });
         Parent root = loader.load();
         stage.setTitle("Error Correcting Code");
         stage.setScene(new Scene(root));
@@ -1,14 +1,27 @@
-import processor.Data;
+import processor.BitMatrix;
+import processor.BlockPipeline;
+import processor.CodeContext;
+import processor.CosetLeaderBuilder;
+import processor.DecodingStrategy;
+import processor.EncoderDecoder;
+import processor.ErrorChannel;
+import processor.LdpcCode;
+import processor.Metrics;
+import processor.TransmissionSession;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.stream.IntStream;
 
 public class Experiment {
-    private final Data data = Data.getInstance();
+    private final EncoderDecoder encoderDecoder = new EncoderDecoder();
+    private final BlockPipeline pipeline = new BlockPipeline();
     private final List<Object[]> successRateResultsTable = new ArrayList<>();
     private final List<ExperimentResult> performanceResults = new ArrayList<>();
     private final List<ExperimentResult> matrixGenerationResults = new ArrayList<>();
+    private final List<Object[]> codeResultsTable = new ArrayList<>();
+    private final List<Object[]> boundedCosetLeaderResultsTable = new ArrayList<>();
 
     private static class ExperimentResult {
         int k, n;
@@ -27,6 +40,10 @@ public class Experiment {
         runSuccessRateExperiment();
         runPerformanceExperiment();
         runMatrixGenerationExperiment();
+        runLdpcExperiment();
+        runAlgebraicCodeExperiment();
+        runBoundedCosetLeaderExperiment();
+        runFieldExperiment();
 
         printResults();
     }
@@ -42,46 +59,42 @@ public class Experiment {
         return inputBits.toString();
     }
 
-    private void introduceManualErrors(int mistakes, Random random) {
-        data.setBlockWithError(data.getEncodedBlock().clone());
+    private void introduceManualErrors(TransmissionSession session, int mistakes, Random random) {
+        int[] blockWithError = session.getEncodedBlock().clone();
         for (int i = 0; i < mistakes; i++) {
-            int position = random.nextInt(data.getBlockWithError().length);
-            data.getBlockWithError()[position] = data.getBlockWithError()[position] == 0 ? 1 : 0;
+            int position = random.nextInt(blockWithError.length);
+            blockWithError[position] = blockWithError[position] == 0 ? 1 : 0;
         }
+        session.setBlockWithError(blockWithError);
 
-        data.setBlockWithoutCodeAndError(data.getBlockWithoutCode().clone());
+        int[] blockWithoutCodeAndError = session.getBlockWithoutCode().clone();
         for (int i = 0; i < mistakes; i++) {
-            int position = random.nextInt(data.getBlockWithoutCodeAndError().length);
-            data.getBlockWithoutCodeAndError()[position] = data.getBlockWithoutCodeAndError()[position] == 0 ? 1 : 0;
+            int position = random.nextInt(blockWithoutCodeAndError.length);
+            blockWithoutCodeAndError[position] = blockWithoutCodeAndError[position] == 0 ? 1 : 0;
         }
-        data.setTotalErrors(mistakes);
-        data.setTotalNoCodingErrors(mistakes);
+        session.setBlockWithoutCodeAndError(blockWithoutCodeAndError);
     }
 
+    /**
+     * Runs the iterations in parallel, each with its own code, session and a random seeded up
+     * front, so the outcome does not depend on how iterations are scheduled.
+     */
     private void runExperiment(int k, int n, int inputSize, int introducedMistakes, int iterations, Random random, List<Object[]> resultsTable) {
-        long totalIntroducedErrors = 0;
-        long totalFixedErrors = 0;
-
-        for (int iteration = 0; iteration < iterations; iteration++) {
-            data.setK(k);
-            data.setN(n);
-            data.generateInputBits("Vector", generateInputBits(inputSize, random));
-            data.generateGeneratingMatrix();
-            data.generateParityCheckMatrix();
-            data.generateCosetLeaders();
-
-            while (data.getCurrentBitPosition() < data.getInputBits().length) {
-                data.nextBlock();
-                data.encodeBlock();
-                introduceManualErrors(introducedMistakes, random);
-                data.decodeBlock();
-
-                totalFixedErrors += data.getFixedCount();
-                totalIntroducedErrors += data.getTotalErrors();
-            }
-
-            data.clear();
-        }
+        ErrorChannel channel = new ErrorChannel(0, 2);
+        long[] seeds = random.longs(iterations).toArray();
+        long totalFixedErrors = IntStream.range(0, iterations).parallel()
+                .mapToLong(iteration -> {
+                    Random iterationRandom = new Random(seeds[iteration]);
+                    CodeContext context = CodeContext.generate(k, n, 2, CosetLeaderBuilder.UNBOUNDED, DecodingStrategy.STEP_BY_STEP);
+                    TransmissionSession session = new TransmissionSession(context, channel);
+                    session.generateInputBits("Vector", generateInputBits(inputSize, iterationRandom));
+                    while (session.hasNextBlock()) {
+                        session.processBatch(() -> introduceManualErrors(session, introducedMistakes, iterationRandom));
+                    }
+                    return session.getStatistics().getFixed();
+                })
+                .sum();
+        long totalIntroducedErrors = (long) introducedMistakes * iterations * (long) Math.ceil((double) inputSize / k);
 
         double averageSuccessRate = totalIntroducedErrors > 0 ? ((double) totalFixedErrors / totalIntroducedErrors) * 100.0 : 100.0;
         resultsTable.add(new Object[]{inputSize, averageSuccessRate});
@@ -129,6 +142,10 @@ public class Experiment {
         }
     }
 
+    /**
+     * Times building codes through the stage metrics, so the times are the same ones reported
+     * over JMX.
+     */
     public void runMatrixGenerationExperiment() {
         int[] ks = {4, 8, 16};
         int totalIterations = 10;
@@ -136,43 +153,154 @@ public class Experiment {
         for (int k : ks) {
             for (int n = k + 1; n <= k + 10; n++) {
                 List<Object[]> resultsTable = new ArrayList<>();
-                long totalGenMatrixTime = 0;
-                long totalParityCheckTime = 0;
-                long totalCosetLeaderTime = 0;
+                long genMatrixStart = totalNanos(Metrics.Stage.GENERATOR);
+                long parityCheckStart = totalNanos(Metrics.Stage.SYSTEMATIC_FORM, Metrics.Stage.PARITY_CHECK);
+                long cosetLeaderStart = totalNanos(Metrics.Stage.COSET_LEADERS);
 
                 for (int iteration = 0; iteration < totalIterations; iteration++) {
-                    data.setK(k);
-                    data.setN(n);
-
-                    long genMatrixStartTime = System.nanoTime();
-                    data.generateGeneratingMatrix();
-                    long genMatrixEndTime = System.nanoTime();
-                    totalGenMatrixTime += (genMatrixEndTime - genMatrixStartTime);
-
-                    long parityCheckStartTime = System.nanoTime();
-                    data.generateParityCheckMatrix();
-                    long parityCheckEndTime = System.nanoTime();
-                    totalParityCheckTime += (parityCheckEndTime - parityCheckStartTime);
-
-                    long cosetLeaderStartTime = System.nanoTime();
-                    data.generateCosetLeaders();
-                    long cosetLeaderEndTime = System.nanoTime();
-                    totalCosetLeaderTime += (cosetLeaderEndTime - cosetLeaderStartTime);
+                    int[][] G = encoderDecoder.generateGeneratingMatrix(k, n);
+                    BitMatrix.Systematic systematic = encoderDecoder.toSystematic(G);
+                    int[][] H = encoderDecoder.generateParityCheckMatrix(systematic);
+                    encoderDecoder.findCosetLeaders(H);
                 }
 
-                long avgGenMatrixTime = totalGenMatrixTime / totalIterations;
-                long avgParityCheckTime = totalParityCheckTime / totalIterations;
-                long avgCosetLeaderTime = totalCosetLeaderTime / totalIterations;
+                long avgGenMatrixTime = (totalNanos(Metrics.Stage.GENERATOR) - genMatrixStart) / totalIterations;
+                long avgParityCheckTime = (totalNanos(Metrics.Stage.SYSTEMATIC_FORM, Metrics.Stage.PARITY_CHECK) - parityCheckStart) / totalIterations;
+                long avgCosetLeaderTime = (totalNanos(Metrics.Stage.COSET_LEADERS) - cosetLeaderStart) / totalIterations;
                 resultsTable.add(new Object[]{k, n, avgGenMatrixTime, avgParityCheckTime, avgCosetLeaderTime});
                 matrixGenerationResults.add(new ExperimentResult(k, n, 0, resultsTable));
             }
         }
     }
 
+    private static long totalNanos(Metrics.Stage... stages) {
+        long total = 0;
+        for (Metrics.Stage stage : stages) {
+            total += Metrics.snapshot(stage).getTotalNanos();
+        }
+        return total;
+    }
+
+    /**
+     * Compares a rate 1/2 coset leader code with rate 1/2 LDPC codes on the same random input:
+     * throughput of the whole encode/channel/decode loop and the bit error rate left after decoding.
+     */
+    public void runLdpcExperiment() {
+        int inputSize = 1 << 16;
+        double[] errorProbabilities = {0.001, 0.01, 0.03};
+        Random random = new Random();
+        String input = generateInputBits(inputSize, random);
+
+        for (double pe : errorProbabilities) {
+            CodeContext context = CodeContext.generate(8, 16, 2, CosetLeaderBuilder.UNBOUNDED, DecodingStrategy.STEP_BY_STEP);
+            runCodeExperiment("Coset table (16, 8)", context.getDecodingStrategy().toString(), context, pe, input);
+
+            for (LdpcCode.Algorithm algorithm : LdpcCode.Algorithm.values()) {
+                context = CodeContext.ldpc(1008, 3, 6, algorithm);
+                runCodeExperiment("LDPC (1008, " + context.getK() + ")", algorithm.toString(), context, pe, input);
+            }
+        }
+    }
+
+    /**
+     * Runs Hamming and BCH codes of length 255-1023, which are decoded algebraically and would
+     * need 2^(n-k) coset leaders otherwise.
+     */
+    public void runAlgebraicCodeExperiment() {
+        int inputSize = 1 << 16;
+        double[] errorProbabilities = {0.001, 0.01};
+        Random random = new Random();
+        String input = generateInputBits(inputSize, random);
+
+        for (double pe : errorProbabilities) {
+            for (int r : new int[]{8, 10}) {
+                CodeContext context = CodeContext.hamming(r);
+                runCodeExperiment("Hamming (" + context.getN() + ", " + context.getK() + ")", "Syndrome position", context, pe, input);
+            }
+
+            int[][] bchParameters = {{8, 8}, {9, 10}, {10, 16}};
+            for (int[] parameters : bchParameters) {
+                CodeContext context = CodeContext.bch(parameters[0], parameters[1]);
+                runCodeExperiment("BCH (" + context.getN() + ", " + context.getK() + ")", "Berlekamp-Massey", context, pe, input);
+            }
+        }
+    }
+
+    /**
+     * Compares full coset leader tables with tables bounded to the radius derived from the
+     * minimum distance: build time, table size and how many blocks end up uncorrectable.
+     */
+    public void runBoundedCosetLeaderExperiment() {
+        int[][] dimensions = {{8, 20}, {8, 24}, {10, 28}};
+        int[] radii = {CosetLeaderBuilder.UNBOUNDED, CosetLeaderBuilder.FROM_MINIMUM_DISTANCE};
+        Random random = new Random();
+        String input = generateInputBits(1 << 14, random);
+        ErrorChannel channel = new ErrorChannel(0.01, 2);
+
+        for (int[] dimension : dimensions) {
+            int[][] G = encoderDecoder.generateGeneratingMatrix(dimension[0], dimension[1]);
+            for (int radius : radii) {
+                long startTime = System.nanoTime();
+                CodeContext context = CodeContext.of(G, 2, radius, DecodingStrategy.STEP_BY_STEP);
+                long buildTime = (System.nanoTime() - startTime) / 1_000_000;
+
+                TransmissionSession session = new TransmissionSession(context, channel);
+                session.generateInputBits("Vector", input);
+                while (session.hasNextBlock()) {
+                    session.processBatch();
+                }
+                boundedCosetLeaderResultsTable.add(new Object[]{dimension[0], dimension[1],
+                        radius == CosetLeaderBuilder.UNBOUNDED ? "full" : "t = " + context.getCosetLeaders().getRadius(),
+                        context.getCosetLeaders().getAssignedCount(), buildTime, session.getStatistics().getUncorrectable()});
+            }
+        }
+    }
+
+    /**
+     * Runs random codes over GF(q) next to a binary code of the same dimensions on the same
+     * input symbols, so their throughput and residual symbol error rate can be compared.
+     */
+    public void runFieldExperiment() {
+        int k = 6;
+        int n = 12;
+        int[] alphabetSizes = {2, 3, 4, 5, 8};
+        Random random = new Random();
+        String input = generateInputBits(1 << 14, random);
+
+        for (int q : alphabetSizes) {
+            CodeContext context = CodeContext.generate(k, n, q, CosetLeaderBuilder.UNBOUNDED, DecodingStrategy.STEP_BY_STEP);
+            runCodeExperiment("GF(" + q + ") (" + n + ", " + k + ")", "Coset leader", context, 0.01, input);
+        }
+    }
+
+    private void runCodeExperiment(String code, String decoder, CodeContext context, double pe, String input) {
+        TransmissionSession session = new TransmissionSession(context, new ErrorChannel(pe, context.getQ()));
+        session.generateInputBits("Vector", input);
+        long startTime = System.nanoTime();
+        pipeline.run(session);
+        long elapsed = System.nanoTime() - startTime;
+
+        double throughput = session.getInput().length() / (elapsed / 1e9) / 1000.0;
+        double residualBitErrorRate = session.getStatistics().getResidualErrorRate();
+        codeResultsTable.add(new Object[]{code, decoder, pe, String.format("%.1f", throughput), residualBitErrorRate});
+    }
+
     private void printResults() {
         printSuccessRateTable();
         printPerformanceResults(performanceResults);
         printMatrixGenerationResults(matrixGenerationResults);
+        printCodeResults();
+        printBoundedCosetLeaderResults();
+    }
+
+    private void printBoundedCosetLeaderResults() {
+        System.out.println("\nBounded Coset Leader Results Table:");
+        printFormattedTable(boundedCosetLeaderResultsTable, new String[]{"k", "n", "Radius", "Coset Leaders", "Build Time (ms)", "Uncorrectable Blocks"});
+    }
+
+    private void printCodeResults() {
+        System.out.println("\nCode Comparison Results Table:");
+        printFormattedTable(codeResultsTable, new String[]{"Code", "Decoder", "Error Probability", "Throughput (kbit/s)", "Residual BER"});
     }
 
     private void printPerformanceResults(List<ExperimentResult> allResults) {
@@ -213,6 +341,7 @@ public class Experiment {
     }
 
     public static void main(String[] args) {
+        Metrics.registerMBean();
         Experiment experiment = new Experiment();
         experiment.run();
     }
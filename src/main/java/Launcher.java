@@ -1,8 +1,10 @@
 import javafx.application.Application;
+import processor.Metrics;
 import ui.UserInterface;
 
 public class Launcher {
     public static void main(String[] args) {
+        Metrics.registerMBean();
         if (args.length > 0 && args[0].equals("ui")) {
             Application.launch(App.class, args);
         } else {
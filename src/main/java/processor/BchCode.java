@@ -0,0 +1,228 @@
+package processor;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Narrow-sense binary BCH code of length 2^m - 1 correcting t errors, encoded systematically
+ * as [message | parity]. Decoding computes 2t power-sum syndromes, finds the error locator with
+ * Berlekamp-Massey and its roots with a Chien search, so no syndrome table is needed.
+ * <p>
+ * Position p of a codeword holds the coefficient of x^(n-k+p) for p &lt; k and of x^(p-k)
+ * otherwise, i.e. c(x) = m(x) x^(n-k) + (m(x) x^(n-k) mod g(x)).
+ */
+public class BchCode implements Decoder {
+    private final GaloisField field;
+    @Getter
+    private final int n;
+    @Getter
+    private final int k;
+    @Getter
+    private final int t;
+    private final int[] generatorPolynomial;
+
+    /**
+     * @param m field degree, the code length is 2^m - 1
+     * @param t number of correctable errors
+     */
+    public BchCode(int m, int t) {
+        this.field = new GaloisField(m);
+        this.n = field.getSize() - 1;
+        this.t = t;
+        if (t < 1 || 2 * t >= n) {
+            throw new IllegalArgumentException("BCH code of length " + n + " cannot correct " + t + " errors");
+        }
+
+        // g(x) is the product of the minimal polynomials of alpha^1 .. alpha^2t
+        boolean[] covered = new boolean[n];
+        int[] g = {1};
+        for (int i = 1; i <= 2 * t; i++) {
+            if (covered[i]) {
+                continue;
+            }
+            int[] minimal = {1};
+            int c = i;
+            do {
+                covered[c] = true;
+                minimal = multiply(minimal, new int[]{field.exp(c), 1});
+                c = (c * 2) % n;
+            } while (c != i);
+            g = multiply(g, minimal);
+        }
+        this.generatorPolynomial = g;
+        this.k = n - (g.length - 1);
+        if (k < 1) {
+            throw new IllegalArgumentException("BCH code of length " + n + " correcting " + t + " errors has no message bits");
+        }
+    }
+
+    private int[] multiply(int[] a, int[] b) {
+        int[] product = new int[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < b.length; j++) {
+                product[i + j] ^= field.multiply(a[i], b[j]);
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Row i is the encoding of the i-th unit message: x^(n-k+i) plus its remainder mod g(x).
+     * @return k x n systematic generator matrix
+     */
+    public int[][] getGenerator() {
+        int r = n - k;
+        int[][] G = new int[k][n];
+        // x^r mod g is g without its leading term
+        int[] remainder = Arrays.copyOf(generatorPolynomial, r);
+        for (int i = 0; i < k; i++) {
+            G[i][i] = 1;
+            for (int j = 0; j < r; j++) {
+                G[i][k + j] = remainder[j];
+            }
+            int carry = remainder[r - 1];
+            System.arraycopy(remainder, 0, remainder, 1, r - 1);
+            remainder[0] = 0;
+            if (carry != 0) {
+                for (int j = 0; j < r; j++) {
+                    remainder[j] ^= generatorPolynomial[j];
+                }
+            }
+        }
+        return G;
+    }
+
+    public int[][] getParityCheckMatrix() {
+        int r = n - k;
+        int[][] G = getGenerator();
+        int[][] H = new int[r][n];
+        for (int i = 0; i < r; i++) {
+            for (int j = 0; j < k; j++) {
+                H[i][j] = G[j][k + i];
+            }
+            H[i][k + i] = 1;
+        }
+        return H;
+    }
+
+    private int exponent(int position) {
+        return position < k ? n - k + position : position - k;
+    }
+
+    private int position(int exponent) {
+        return exponent >= n - k ? exponent - (n - k) : k + exponent;
+    }
+
+    @Override
+    public int[] decode(int[] received) {
+        int[] c = Arrays.copyOf(received, n);
+
+        // S_j = r(alpha^j); for a binary code S_2j = S_j^2, so only odd j are summed
+        int[] syndromes = new int[2 * t + 1];
+        boolean zero = true;
+        for (int j = 1; j <= 2 * t; j += 2) {
+            int s = 0;
+            for (int p = 0; p < n; p++) {
+                if (c[p] != 0) {
+                    s ^= field.exp(j * exponent(p));
+                }
+            }
+            syndromes[j] = s;
+            zero &= s == 0;
+        }
+        if (zero) {
+            return c;
+        }
+        for (int j = 2; j <= 2 * t; j += 2) {
+            syndromes[j] = field.multiply(syndromes[j / 2], syndromes[j / 2]);
+        }
+
+        int[] locator = berlekampMassey(syndromes);
+        int errors = locator.length - 1;
+        if (errors > t) {
+            return c;
+        }
+
+        // Chien search: alpha^-e is a root of the locator iff exponent e is in error
+        int[] roots = new int[errors];
+        int found = 0;
+        int[] terms = Arrays.copyOf(locator, locator.length);
+        int[] steps = new int[terms.length];
+        for (int j = 1; j < terms.length; j++) {
+            steps[j] = field.exp(-j);
+        }
+        for (int e = 0; e < n && found < errors; e++) {
+            int sum = 0;
+            for (int term : terms) {
+                sum ^= term;
+            }
+            if (sum == 0) {
+                roots[found++] = e;
+            }
+            for (int j = 1; j < terms.length; j++) {
+                terms[j] = field.multiply(terms[j], steps[j]);
+            }
+        }
+        if (found != errors) {
+            return c;
+        }
+        for (int e : roots) {
+            c[position(e)] ^= 1;
+        }
+        return c;
+    }
+
+    /**
+     * Berlekamp-Massey: shortest LFSR generating S_1 .. S_2t.
+     * @param syndromes syndromes indexed from 1
+     * @return error locator coefficients, constant term first, trimmed to its degree
+     */
+    private int[] berlekampMassey(int[] syndromes) {
+        int length = 2 * t;
+        int[] locator = new int[length + 1];
+        int[] previous = new int[length + 1];
+        locator[0] = 1;
+        previous[0] = 1;
+        int degree = 0;
+        int shift = 1;
+        int previousDiscrepancy = 1;
+
+        for (int i = 0; i < length; i++) {
+            int discrepancy = syndromes[i + 1];
+            for (int j = 1; j <= degree; j++) {
+                discrepancy ^= field.multiply(locator[j], syndromes[i + 1 - j]);
+            }
+            if (discrepancy == 0) {
+                shift++;
+                continue;
+            }
+            int scale = field.divide(discrepancy, previousDiscrepancy);
+            int[] saved = 2 * degree <= i ? locator.clone() : null;
+            for (int j = 0; j + shift <= length; j++) {
+                locator[j + shift] ^= field.multiply(scale, previous[j]);
+            }
+            if (saved != null) {
+                degree = i + 1 - degree;
+                previous = saved;
+                previousDiscrepancy = discrepancy;
+                shift = 1;
+            } else {
+                shift++;
+            }
+        }
+        return Arrays.copyOf(locator, degree + 1);
+    }
+
+    @Override
+    public int[] message(int[] codeword) {
+        return Arrays.copyOf(codeword, k);
+    }
+
+    @Override
+    public int[] informationSet() {
+        int[] positions = new int[k];
+        Arrays.setAll(positions, i -> i);
+        return positions;
+    }
+}
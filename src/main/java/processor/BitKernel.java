@@ -0,0 +1,30 @@
+package processor;
+
+/**
+ * Word-level GF(2) kernels used by the packed encode and syndrome paths.
+ */
+public interface BitKernel {
+    /**
+     * GF(2) dot product of two packed vectors of equal length.
+     * @param a first vector
+     * @param b second vector
+     * @return parity of the bitwise AND
+     */
+    int parity(long[] a, long[] b);
+
+    /**
+     * XORs dst.length words of src, starting at srcOffset, into dst.
+     * @param dst destination vector
+     * @param src source words
+     * @param srcOffset first word of src to use
+     */
+    void xorInto(long[] dst, long[] src, int srcOffset);
+
+    /**
+     * The fastest kernel available in this JVM.
+     * @return SIMD kernel when jdk.incubator.vector is present and verified, otherwise scalar
+     */
+    static BitKernel get() {
+        return BitKernels.INSTANCE;
+    }
+}
@@ -0,0 +1,52 @@
+package processor;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Picks the bit kernel once per JVM. The SIMD kernel is cross-checked against the scalar one
+ * on random vectors before it is used, and any failure falls back to the scalar kernel.
+ */
+final class BitKernels {
+    static final BitKernel INSTANCE = select();
+
+    private BitKernels() {
+    }
+
+    private static BitKernel select() {
+        BitKernel scalar = new ScalarBitKernel();
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return scalar;
+        }
+        try {
+            BitKernel vector = (BitKernel) Class.forName("processor.VectorBitKernel")
+                    .getDeclaredConstructor()
+                    .newInstance();
+            return agree(scalar, vector) ? vector : scalar;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return scalar;
+        }
+    }
+
+    private static boolean agree(BitKernel expected, BitKernel actual) {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int length = 1; length <= 37; length++) {
+            for (int trial = 0; trial < 8; trial++) {
+                long[] a = random.longs(length).toArray();
+                long[] b = random.longs(length + 3).toArray();
+                long[] c = Arrays.copyOf(b, length);
+                if (expected.parity(a, c) != actual.parity(a, c)) {
+                    return false;
+                }
+                long[] x = a.clone();
+                long[] y = a.clone();
+                expected.xorInto(x, b, 3);
+                actual.xorInto(y, b, 3);
+                if (!Arrays.equals(x, y)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,296 @@
+package processor;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Dense GF(2) matrix with every row packed into 64-bit words.
+ * Row reduction uses the Method of Four Russians (M4RI): pivots are found in strips of
+ * 8 columns, and all other rows are cleared of a strip with one lookup into a table of the
+ * 256 combinations of its pivot rows.
+ */
+public class BitMatrix {
+    private static final int STRIP = 8;
+    private static final BitKernel kernel = BitKernel.get();
+
+    @Getter
+    private final int rows;
+    @Getter
+    private final int columns;
+    private final int words;
+    private final long[][] data;
+
+    public BitMatrix(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.words = Bits.words(columns);
+        this.data = new long[rows][words];
+    }
+
+    public static BitMatrix of(int[][] matrix) {
+        BitMatrix bitMatrix = new BitMatrix(matrix.length, matrix[0].length);
+        for (int i = 0; i < matrix.length; i++) {
+            bitMatrix.data[i] = Bits.pack(matrix[i]);
+        }
+        return bitMatrix;
+    }
+
+    public int[][] toArray() {
+        int[][] matrix = new int[rows][];
+        for (int i = 0; i < rows; i++) {
+            matrix[i] = Bits.unpack(data[i], columns);
+        }
+        return matrix;
+    }
+
+    public int get(int row, int column) {
+        return Bits.get(data[row], column);
+    }
+
+    public void set(int row, int column, int value) {
+        if (get(row, column) != (value & 1)) {
+            Bits.flip(data[row], column);
+        }
+    }
+
+    public BitMatrix copy() {
+        BitMatrix copy = new BitMatrix(rows, columns);
+        for (int i = 0; i < rows; i++) {
+            copy.data[i] = data[i].clone();
+        }
+        return copy;
+    }
+
+    public BitMatrix transpose() {
+        BitMatrix transposed = new BitMatrix(columns, rows);
+        for (int i = 0; i < rows; i++) {
+            for (int w = 0; w < words; w++) {
+                long word = data[i][w];
+                while (word != 0) {
+                    int column = (w << 6) + Long.numberOfTrailingZeros(word);
+                    Bits.flip(transposed.data[column], i);
+                    word &= word - 1;
+                }
+            }
+        }
+        return transposed;
+    }
+
+    /**
+     * Multiplies this matrix by another (M4RM): every row of the result is an encoding of
+     * the corresponding row of this matrix with the other matrix as generator.
+     *
+     * @param other right-hand matrix
+     * @return product
+     */
+    public BitMatrix multiply(BitMatrix other) {
+        if (columns != other.rows) {
+            throw new IllegalArgumentException("Cannot multiply " + rows + "x" + columns + " by " + other.rows + "x" + other.columns);
+        }
+        TableEncoder encoder = new TableEncoder(other.data, other.columns);
+        BitMatrix product = new BitMatrix(rows, other.columns);
+        for (int i = 0; i < rows; i++) {
+            product.data[i] = encoder.encode(data[i]);
+        }
+        return product;
+    }
+
+    public int rank() {
+        return copy().reduce(columns).length;
+    }
+
+    /**
+     * Linearly independent rows spanning the same row space.
+     * @return reduced basis of the row space
+     */
+    public BitMatrix rowBasis() {
+        BitMatrix reduced = copy();
+        int rank = reduced.reduce(columns).length;
+        BitMatrix basis = new BitMatrix(rank, columns);
+        for (int i = 0; i < rank; i++) {
+            basis.data[i] = reduced.data[i];
+        }
+        return basis;
+    }
+
+    /**
+     * Brings the first searchColumns columns into reduced form in place: the pivot rows are
+     * moved to the top and every pivot column has a single 1, in its pivot row.
+     *
+     * @param searchColumns number of leading columns in which to look for pivots
+     * @return pivot column of each pivot row
+     */
+    private int[] reduce(int searchColumns) {
+        int[] pivots = new int[Math.min(rows, searchColumns)];
+        int rank = 0;
+        long[] table = new long[(1 << STRIP) * words];
+
+        for (int strip = 0; strip < searchColumns && rank < rows; strip += STRIP) {
+            int stripEnd = Math.min(strip + STRIP, searchColumns);
+            int found = 0;
+
+            // Find up to 8 pivots in this strip, keeping the pivot rows reduced among themselves
+            for (int i = rank; i < rows && found < stripEnd - strip; i++) {
+                for (int p = 0; p < found; p++) {
+                    if (get(i, pivots[rank + p]) != 0) {
+                        kernel.xorInto(data[i], data[rank + p], 0);
+                    }
+                }
+                int column = firstSetColumn(data[i], strip, stripEnd);
+                if (column < 0) {
+                    continue;
+                }
+                long[] pivotRow = data[i];
+                data[i] = data[rank + found];
+                data[rank + found] = pivotRow;
+                for (int p = 0; p < found; p++) {
+                    if (get(rank + p, column) != 0) {
+                        kernel.xorInto(data[rank + p], pivotRow, 0);
+                    }
+                }
+                pivots[rank + found] = column;
+                found++;
+            }
+            if (found == 0) {
+                continue;
+            }
+
+            // Table of all combinations of the pivot rows, indexed by their pivot bits
+            for (int v = 1; v < 1 << found; v++) {
+                int lowest = Integer.numberOfTrailingZeros(v);
+                int previous = (v & (v - 1)) * words;
+                long[] row = data[rank + lowest];
+                for (int w = 0; w < words; w++) {
+                    table[v * words + w] = table[previous + w] ^ row[w];
+                }
+            }
+            for (int i = 0; i < rows; i++) {
+                if (i >= rank && i < rank + found) {
+                    continue;
+                }
+                int v = 0;
+                for (int p = 0; p < found; p++) {
+                    v |= get(i, pivots[rank + p]) << p;
+                }
+                if (v != 0) {
+                    kernel.xorInto(data[i], table, v * words);
+                }
+            }
+            rank += found;
+        }
+        return Arrays.copyOf(pivots, rank);
+    }
+
+    private static int firstSetColumn(long[] row, int from, int to) {
+        for (int column = from; column < to; column++) {
+            if (Bits.get(row, column) != 0) {
+                return column;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Brings a full-rank k x n generator matrix to systematic form [I_k | P] up to a
+     * permutation of the columns.
+     *
+     * @return systematic form with its column permutation
+     */
+    public Systematic toSystematic() {
+        // Reduce [G | I_k] so the row operations are recorded in the right-hand block
+        BitMatrix augmented = new BitMatrix(rows, columns + rows);
+        for (int i = 0; i < rows; i++) {
+            for (int w = 0; w < words; w++) {
+                augmented.data[i][w] = data[i][w];
+            }
+            augmented.set(i, columns + i, 1);
+        }
+        int[] pivots = augmented.reduce(columns);
+        if (pivots.length < rows) {
+            throw new IllegalArgumentException("Generator matrix is not full rank: rank " + pivots.length + " < k = " + rows);
+        }
+
+        int[] permutation = new int[columns];
+        boolean[] isPivot = new boolean[columns];
+        for (int p = 0; p < rows; p++) {
+            permutation[p] = pivots[p];
+            isPivot[pivots[p]] = true;
+        }
+        for (int column = 0, next = rows; column < columns; column++) {
+            if (!isPivot[column]) {
+                permutation[next++] = column;
+            }
+        }
+
+        BitMatrix generator = new BitMatrix(rows, columns);
+        BitMatrix transform = new BitMatrix(rows, rows);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                generator.set(i, j, augmented.get(i, permutation[j]));
+            }
+            for (int j = 0; j < rows; j++) {
+                transform.set(i, j, augmented.get(i, columns + j));
+            }
+        }
+        return new Systematic(generator, permutation, transform);
+    }
+
+    /**
+     * Systematic form of a generator matrix G.
+     *
+     * @param generator   [I_k | P]; its column j is column permutation[j] of G
+     * @param permutation column permutation, the first k entries are the information set
+     * @param transform   row operations T with T * G restricted to the information set = I_k
+     */
+    public record Systematic(BitMatrix generator, int[] permutation, BitMatrix transform) {
+        /**
+         * H = [P^T | I_(n-k)] with its columns moved back to the positions of G.
+         * @return parity-check matrix of the code generated by G
+         */
+        public BitMatrix parityCheckMatrix() {
+            int k = generator.rows;
+            int n = generator.columns;
+            BitMatrix H = new BitMatrix(n - k, n);
+            for (int i = 0; i < k; i++) {
+                for (int j = k; j < n; j++) {
+                    if (generator.get(i, j) != 0) {
+                        H.set(j - k, permutation[i], 1);
+                    }
+                }
+            }
+            for (int i = 0; i < n - k; i++) {
+                H.set(i, permutation[k + i], 1);
+            }
+            return H;
+        }
+
+        /**
+         * Recovers the message of a codeword: the information set gives m * T^-1, so m is
+         * that vector multiplied by T.
+         *
+         * @param codeword codeword of the code generated by G
+         * @return message of length k
+         */
+        public int[] message(int[] codeword) {
+            int k = generator.rows;
+            int[] message = new int[k];
+            for (int p = 0; p < k; p++) {
+                if (codeword[permutation[p]] != 0) {
+                    for (int j = 0; j < k; j++) {
+                        message[j] ^= transform.get(p, j);
+                    }
+                }
+            }
+            return message;
+        }
+
+        /**
+         * @return codeword positions of the information set, in the order {@link #message(int[])}
+         * reads them
+         */
+        public int[] informationSet() {
+            return Arrays.copyOf(permutation, generator.rows);
+        }
+    }
+}
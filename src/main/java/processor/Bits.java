@@ -0,0 +1,82 @@
+package processor;
+
+/**
+ * Helpers for packed GF(2) vectors: bit i of a vector lives in word i / 64 at position i % 64.
+ */
+public final class Bits {
+    private Bits() {
+    }
+
+    /**
+     * Number of 64-bit words needed to hold n bits.
+     * @param n number of bits
+     * @return number of words
+     */
+    public static int words(int n) {
+        return (n + 63) >>> 6;
+    }
+
+    /**
+     * Packs a vector of 0/1 ints into 64-bit words.
+     * @param bits vector to pack
+     * @return packed vector
+     */
+    public static long[] pack(int[] bits) {
+        long[] packed = new long[words(bits.length)];
+        for (int i = 0; i < bits.length; i++) {
+            if ((bits[i] & 1) != 0) {
+                packed[i >>> 6] |= 1L << i;
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * Packs every row of a 0/1 matrix.
+     * @param matrix matrix to pack
+     * @return packed rows
+     */
+    public static long[][] pack(int[][] matrix) {
+        long[][] packed = new long[matrix.length][];
+        for (int i = 0; i < matrix.length; i++) {
+            packed[i] = pack(matrix[i]);
+        }
+        return packed;
+    }
+
+    /**
+     * Unpacks the first n bits of a packed vector.
+     * @param packed packed vector
+     * @param n number of bits
+     * @return vector of 0/1 ints
+     */
+    public static int[] unpack(long[] packed, int n) {
+        int[] bits = new int[n];
+        for (int i = 0; i < n; i++) {
+            bits[i] = (int) (packed[i >>> 6] >>> i) & 1;
+        }
+        return bits;
+    }
+
+    public static int get(long[] packed, int i) {
+        return (int) (packed[i >>> 6] >>> i) & 1;
+    }
+
+    public static void flip(long[] packed, int i) {
+        packed[i >>> 6] ^= 1L << i;
+    }
+
+    /**
+     * GF(2) dot product of two packed vectors.
+     * @param a first vector
+     * @param b second vector
+     * @return parity of the bitwise AND
+     */
+    public static int parity(long[] a, long[] b) {
+        long acc = 0;
+        for (int i = 0; i < a.length; i++) {
+            acc ^= a[i] & b[i];
+        }
+        return Long.bitCount(acc) & 1;
+    }
+}
@@ -0,0 +1,249 @@
+package processor;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Sends the remaining input of a {@link TransmissionSession} through its code in stages that run
+ * concurrently:
+ * <pre>
+ * split -&gt; [encode x workers] -&gt; [channel x workers] -&gt; [decode x workers] -&gt; assemble
+ * </pre>
+ * Stages pass batches of blocks over bounded queues, so a slow stage blocks the ones before it.
+ * At most {@code window} batches are in flight between splitting and assembly, which also bounds
+ * the batches held back while the assembler restores their input order.
+ * <p>
+ * The session itself is only touched by the splitting thread (its cursor) and the calling thread
+ * (its statistics and output); the context and channel are shared by the workers. Every block
+ * is sent with the channel generator of its block number, so a seeded channel gives the same
+ * errors for any number of workers and batch size.
+ */
+@Getter
+public class BlockPipeline {
+    private static final long POLL_MILLIS = 100;
+
+    private final int batchSize;
+    private final int workers;
+    private final int queueCapacity;
+    private final int window;
+
+    /**
+     * @param batchSize     blocks per batch
+     * @param workers       threads of each of the encode, channel and decode stages
+     * @param queueCapacity batches each queue between two stages holds
+     */
+    public BlockPipeline(int batchSize, int workers, int queueCapacity) {
+        if (batchSize < 1 || workers < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Batch size, workers and queue capacity must be positive");
+        }
+        this.batchSize = batchSize;
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+        this.window = 3 * (queueCapacity + workers);
+    }
+
+    /**
+     * Batches of 64 blocks, the width of the bit-sliced encoder, with one worker per processor
+     * in each stage.
+     */
+    public BlockPipeline() {
+        this(64, Runtime.getRuntime().availableProcessors(), 2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    private static final class Batch {
+        final int index;
+        final long firstBlock;
+        /** Binary input as taken from the session, unpacked into messages when encoded. */
+        final long[][] packed;
+        int[][] messages;
+        int[][] encoded;
+        int[][] received;
+        int[][] receivedWithoutCode;
+        int[][] corrected;
+        boolean[] uncorrectable;
+
+        Batch(int index, long firstBlock, int[][] messages) {
+            this.index = index;
+            this.firstBlock = firstBlock;
+            this.packed = null;
+            this.messages = messages;
+        }
+
+        Batch(int index, long firstBlock, long[][] packed) {
+            this.index = index;
+            this.firstBlock = firstBlock;
+            this.packed = packed;
+        }
+
+        void encode(CodeContext context) {
+            if (packed == null) {
+                encoded = context.encodeBatch(messages);
+                return;
+            }
+            encoded = context.encodeBatch(packed);
+            messages = new int[packed.length][];
+            for (int i = 0; i < packed.length; i++) {
+                messages[i] = Bits.unpack(packed[i], context.getK());
+            }
+        }
+
+        void transmit(ErrorChannel channel) {
+            long start = System.nanoTime();
+            received = new int[messages.length][];
+            receivedWithoutCode = new int[messages.length][];
+            for (int i = 0; i < messages.length; i++) {
+                SplittableRandom random = channel.random(firstBlock + i);
+                received[i] = channel.transmit(encoded[i], random);
+                receivedWithoutCode[i] = channel.transmit(messages[i], random);
+            }
+            Metrics.record(Metrics.Stage.CHANNEL, start, messages.length);
+        }
+
+        void decode(CodeContext context) {
+            uncorrectable = new boolean[messages.length];
+            corrected = context.decodeBatch(received, uncorrectable);
+        }
+    }
+
+    /**
+     * Processes all remaining blocks of the session. Input that fits in one batch is processed on
+     * the calling thread without starting any workers.
+     *
+     * @param session session to advance to the end of its input
+     * @throws CancellationException if the calling thread is interrupted; the session is then
+     *                               left part way through
+     */
+    public void run(TransmissionSession session) {
+        CodeContext context = session.getContext();
+        ErrorChannel channel = session.getChannel();
+        long remaining = session.getRemainingBlocks();
+        int batches = (int) ((remaining + batchSize - 1) / batchSize);
+        if (!Trace.isEnabled(Trace.Level.INFO)) {
+            process(session, context, channel, batches);
+            return;
+        }
+        long start = System.nanoTime();
+        Trace.event(Trace.Level.INFO, String.format("Pipeline started: %d blocks in %d batches, %d workers per stage",
+                remaining, batches, batches <= 1 ? 0 : workers));
+        try {
+            process(session, context, channel, batches);
+        } finally {
+            Trace.event(Trace.Level.INFO, String.format("Pipeline finished in %.3f ms", (System.nanoTime() - start) / 1e6));
+        }
+    }
+
+    private void process(TransmissionSession session, CodeContext context, ErrorChannel channel, int batches) {
+        if (batches <= 1) {
+            if (batches == 1) {
+                Batch batch = split(session, 0);
+                batch.encode(context);
+                batch.transmit(channel);
+                batch.decode(context);
+                complete(session, batch);
+            }
+            return;
+        }
+
+        BlockingQueue<Batch> split = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Batch> encoded = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Batch> received = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Batch> decoded = new ArrayBlockingQueue<>(queueCapacity);
+        Semaphore inFlight = new Semaphore(window);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(1 + 3 * workers, runnable -> {
+            Thread thread = new Thread(runnable, "block-pipeline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            executor.execute(guard(failure, () -> {
+                for (int index = 0; index < batches; index++) {
+                    inFlight.acquire();
+                    split.put(split(session, index));
+                }
+            }));
+            for (int i = 0; i < workers; i++) {
+                executor.execute(stage(failure, split, encoded, batch -> batch.encode(context)));
+                executor.execute(stage(failure, encoded, received, batch -> batch.transmit(channel)));
+                executor.execute(stage(failure, received, decoded, batch -> batch.decode(context)));
+            }
+
+            Map<Integer, Batch> pending = new HashMap<>();
+            for (int next = 0; next < batches; ) {
+                Batch batch = decoded.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (failure.get() != null) {
+                    throw new IllegalStateException("Block pipeline failed", failure.get());
+                }
+                if (batch == null) {
+                    continue;
+                }
+                pending.put(batch.index, batch);
+                for (Batch ready = pending.remove(next); ready != null; ready = pending.remove(next)) {
+                    complete(session, ready);
+                    inFlight.release();
+                    next++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Block pipeline interrupted");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Takes the next batch; binary input is read packed.
+     */
+    private Batch split(TransmissionSession session, int index) {
+        long firstBlock = session.getCurrentBlock();
+        return session.getContext().getQ() == 2
+                ? new Batch(index, firstBlock, session.nextPackedBlocks(batchSize))
+                : new Batch(index, firstBlock, session.nextBlocks(batchSize));
+    }
+
+    private static void complete(TransmissionSession session, Batch batch) {
+        session.completeBatch(batch.messages, batch.encoded, batch.received, batch.receivedWithoutCode,
+                batch.corrected, batch.uncorrectable);
+    }
+
+    private interface Task {
+        void run() throws InterruptedException;
+    }
+
+    private static Runnable guard(AtomicReference<Throwable> failure, Task task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (InterruptedException e) {
+                // shut down after the last batch or a failure
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+            }
+        };
+    }
+
+    private static Runnable stage(AtomicReference<Throwable> failure, BlockingQueue<Batch> input,
+                                  BlockingQueue<Batch> output, Consumer<Batch> work) {
+        return guard(failure, () -> {
+            while (true) {
+                Batch batch = input.take();
+                work.accept(batch);
+                output.put(batch);
+            }
+        });
+    }
+}
@@ -0,0 +1,203 @@
+package processor;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Running statistics of the blocks a session completes. Each block is compared once as XOR
+ * masks, one bit per position, and every count is a {@link Long#bitCount(long)} of a mask; the
+ * histograms walk only the set bits.
+ * <ul>
+ *     <li>errors: codeword positions the channel changed</li>
+ *     <li>fixed: of those in the information set, the ones whose message symbol belongs to the
+ *     input and decodes to the sent symbol. Message symbol i is read from codeword position
+ *     informationSet[i], which for systematic codes is position i</li>
+ *     <li>residual: message symbols that still differ after decoding</li>
+ * </ul>
+ * Blocks sent without coding only have their channel errors counted, as nothing corrects them.
+ */
+@Getter
+public class BlockStatistics {
+    private final int n;
+    private final int k;
+    @Getter(AccessLevel.NONE)
+    private final int[] informationSet;
+
+    private long blocks;
+    private long symbols;
+    private long errors;
+    private long fixed;
+    private long residual;
+    private long noCodingErrors;
+    private long uncorrectable;
+
+    /**
+     * errorsPerBlock[w]: blocks with w channel errors in the codeword.
+     */
+    private final long[] errorsPerBlock;
+    /**
+     * errorRuns[l]: runs of l consecutive erroneous codeword positions.
+     */
+    private final long[] errorRuns;
+    /**
+     * errorsPerPosition[i]: channel errors at codeword position i.
+     */
+    private final long[] errorsPerPosition;
+    /**
+     * residualPerPosition[i]: residual errors at message position i.
+     */
+    private final long[] residualPerPosition;
+
+    /**
+     * @param n              length of the codeword
+     * @param informationSet codeword positions the message is read from, in message order
+     */
+    public BlockStatistics(int n, int[] informationSet) {
+        this.n = n;
+        this.k = informationSet.length;
+        this.informationSet = informationSet.clone();
+        this.errorsPerBlock = new long[n + 1];
+        this.errorRuns = new long[n + 1];
+        this.errorsPerPosition = new long[n];
+        this.residualPerPosition = new long[k];
+    }
+
+    /**
+     * Adds one completed block.
+     *
+     * @param message             sent message, length k
+     * @param encoded             sent codeword
+     * @param received            codeword after the channel
+     * @param decoded             decoded message
+     * @param receivedWithoutCode message sent without coding after the channel
+     * @param length              number of message symbols that belong to the input
+     * @param uncorrectable       whether the decoder had no coset leader for the syndrome
+     */
+    public void add(int[] message, int[] encoded, int[] received, int[] decoded, int[] receivedWithoutCode,
+                    int length, boolean uncorrectable) {
+        long[] errorMask = differences(encoded, received);
+        long[] residualMask = differences(message, decoded);
+        long[] noCodingMask = differences(message, receivedWithoutCode);
+        int words = (k + 63) >>> 6;
+        long[] messageErrorMask = new long[words];
+        for (int i = 0; i < k; i++) {
+            int position = informationSet[i];
+            messageErrorMask[i >>> 6] |= (errorMask[position >>> 6] >>> position & 1L) << i;
+        }
+
+        int blockErrors = 0;
+        for (long word : errorMask) {
+            blockErrors += Long.bitCount(word);
+        }
+        for (int w = 0; w < words; w++) {
+            long inMessage = w == words - 1 ? lowBits(k - 64 * w) : -1L;
+            long valid = inMessage & (64 * w >= length ? 0 : lowBits(length - 64 * w));
+            fixed += Long.bitCount(messageErrorMask[w] & ~residualMask[w] & valid);
+            residual += Long.bitCount(residualMask[w] & valid);
+            noCodingErrors += Long.bitCount(noCodingMask[w] & valid);
+            residualMask[w] &= valid;
+        }
+
+        blocks++;
+        symbols += length;
+        errors += blockErrors;
+        errorsPerBlock[blockErrors]++;
+        if (uncorrectable) {
+            this.uncorrectable++;
+        }
+        addPositions(errorMask, errorsPerPosition);
+        addPositions(residualMask, residualPerPosition);
+        addRuns(errorMask);
+    }
+
+    private static long lowBits(int count) {
+        return count >= 64 ? -1L : (1L << count) - 1;
+    }
+
+    private static void addPositions(long[] mask, long[] histogram) {
+        for (int w = 0; w < mask.length; w++) {
+            for (long word = mask[w]; word != 0; word &= word - 1) {
+                histogram[(w << 6) + Long.numberOfTrailingZeros(word)]++;
+            }
+        }
+    }
+
+    private void addRuns(long[] mask) {
+        int run = 0;
+        int previous = -2;
+        for (int w = 0; w < mask.length; w++) {
+            for (long word = mask[w]; word != 0; word &= word - 1) {
+                int position = (w << 6) + Long.numberOfTrailingZeros(word);
+                if (position != previous + 1 && run > 0) {
+                    errorRuns[run]++;
+                    run = 0;
+                }
+                run++;
+                previous = position;
+            }
+        }
+        if (run > 0) {
+            errorRuns[run]++;
+        }
+    }
+
+    /**
+     * @param a first vector
+     * @param b second vector of the same length
+     * @return mask with bit i set where a[i] != b[i]
+     */
+    public static long[] differences(int[] a, int[] b) {
+        long[] mask = new long[(a.length + 63) >>> 6];
+        for (int i = 0; i < a.length; i++) {
+            mask[i >>> 6] |= (long) (a[i] != b[i] ? 1 : 0) << i;
+        }
+        return mask;
+    }
+
+    /**
+     * @param mask positions as a bit mask
+     * @return number of set positions
+     */
+    public static int count(long[] mask) {
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @param mask positions as a bit mask
+     * @return set positions in increasing order
+     */
+    public static int[] positions(long[] mask) {
+        int[] positions = new int[count(mask)];
+        int next = 0;
+        for (int w = 0; w < mask.length; w++) {
+            for (long word = mask[w]; word != 0; word &= word - 1) {
+                positions[next++] = (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * @return fixed message position errors per channel error
+     */
+    public double getFixedRate() {
+        return errors > 0 ? (double) fixed / errors : 1.0;
+    }
+
+    /**
+     * @return message symbols that differ after decoding per message symbol sent
+     */
+    public double getResidualErrorRate() {
+        return symbols > 0 ? (double) residual / symbols : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d blocks, %d channel errors, %d fixed, %d residual, %d uncorrectable blocks; without coding %d errors",
+                blocks, errors, fixed, residual, uncorrectable, noCodingErrors);
+    }
+}
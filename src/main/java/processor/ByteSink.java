@@ -0,0 +1,27 @@
+package processor;
+
+/**
+ * Assembles the output into bytes as it arrives, most significant bit first. Symbols other than
+ * 0 count as 1, and a trailing partial byte is dropped.
+ */
+public abstract class ByteSink implements OutputSink {
+    private int current;
+    private int bits;
+
+    @Override
+    public void accept(int[] block, int length) {
+        for (int i = 0; i < length; i++) {
+            current = current << 1 | (block[i] != 0 ? 1 : 0);
+            if (++bits == 8) {
+                acceptByte(current);
+                current = 0;
+                bits = 0;
+            }
+        }
+    }
+
+    /**
+     * @param value byte assembled from the last 8 symbols, 0..255
+     */
+    protected abstract void acceptByte(int value);
+}
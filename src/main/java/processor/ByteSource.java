@@ -0,0 +1,111 @@
+package processor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The bits of a sequence of bytes, most significant bit first, taken from the bytes with shifts
+ * as they are read. Files are memory-mapped, so they are paged in as the session reaches them
+ * instead of being loaded up front.
+ */
+public class ByteSource implements InputSource {
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+    /**
+     * Consecutive parts of the bytes, each 2^30 bytes except the last, read with absolute gets.
+     */
+    private final ByteBuffer[] segments;
+    private final long size;
+
+    private ByteSource(ByteBuffer[] segments, long size) {
+        this.segments = segments;
+        this.size = size;
+    }
+
+    /**
+     * @param bytes bytes to send
+     * @return source of the bits of the bytes
+     */
+    public static ByteSource of(byte[] bytes) {
+        return new ByteSource(new ByteBuffer[]{ByteBuffer.wrap(bytes)}, bytes.length);
+    }
+
+    /**
+     * Maps a file read-only.
+     *
+     * @param path file to send
+     * @return source of the bits of the file
+     * @throws IOException if the file cannot be mapped
+     */
+    public static ByteSource map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer[] segments = new ByteBuffer[(int) Math.max(1, (size + SEGMENT_MASK) >>> SEGMENT_BITS)];
+            for (int i = 0; i < segments.length; i++) {
+                long offset = (long) i << SEGMENT_BITS;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(size - offset, 1L << SEGMENT_BITS));
+            }
+            return new ByteSource(segments, size);
+        }
+    }
+
+    /**
+     * @return number of bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public long length() {
+        return size * 8;
+    }
+
+    /**
+     * Copies whole bytes with one shift each, reversed to the least significant bit first order of
+     * packed vectors; only the bits before the first and after the last whole byte go one by one.
+     */
+    @Override
+    public void read(long position, long[] target, int count) {
+        Arrays.fill(target, 0, Bits.words(count), 0);
+        int i = 0;
+        for (; i < count && (position + i & 7) != 0; i++) {
+            target[i >>> 6] |= (long) bit(position + i) << i;
+        }
+        for (; i + 8 <= count; i += 8) {
+            long bits = Integer.reverse(get((position + i) >>> 3) & 0xFF) >>> 24;
+            int shift = i & 63;
+            target[i >>> 6] |= bits << shift;
+            if (shift > 56) {
+                target[(i >>> 6) + 1] |= bits >>> (64 - shift);
+            }
+        }
+        for (; i < count; i++) {
+            target[i >>> 6] |= (long) bit(position + i) << i;
+        }
+    }
+
+    private int get(long index) {
+        return segments[(int) (index >>> SEGMENT_BITS)].get((int) (index & SEGMENT_MASK));
+    }
+
+    private int bit(long position) {
+        return get(position >>> 3) >>> (7 - (int) (position & 7)) & 1;
+    }
+
+    @Override
+    public void read(long position, int[] target, int count) {
+        int i = 0;
+        while (i < count) {
+            int value = get(position >>> 3);
+            for (int bit = 7 - (int) (position & 7); bit >= 0 && i < count; bit--, i++, position++) {
+                target[i] = value >>> bit & 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package processor;
+
+import lombok.Getter;
+
+import java.util.Random;
+
+/**
+ * An immutable code: G, H and everything derived from them to encode and decode.
+ * All state is built in the factory methods and never changed afterwards, so one context can
+ * be shared by any number of {@link TransmissionSession}s on any number of threads.
+ */
+public final class CodeContext {
+    private static final EncoderDecoder encoderDecoder = new EncoderDecoder();
+    private static final CosetLeaderCache cosetLeaderCache = new CosetLeaderCache();
+
+    @Getter
+    private final int n;
+    @Getter
+    private final int k;
+    private final int[][] G;
+    private final int[][] H;
+    /**
+     * Alphabet size of the code, 2 for binary codes.
+     */
+    @Getter
+    private final int q;
+    @Getter
+    private final int correctionRadius;
+    @Getter
+    private final DecodingStrategy decodingStrategy;
+    private final TableEncoder tableEncoder;
+    private final BitMatrix.Systematic systematicG;
+    @Getter
+    private final CosetLeaderTable cosetLeaders;
+    private final SyndromeDecoder syndromeDecoder;
+    private final FieldMatrix.Systematic fieldSystematicG;
+    @Getter
+    private final FieldSyndromeDecoder fieldSyndromeDecoder;
+    @Getter
+    private final Decoder decoder;
+
+    private CodeContext(int[][] G, int[][] H, int q, int correctionRadius, DecodingStrategy decodingStrategy,
+                        BitMatrix.Systematic systematicG, CosetLeaderTable cosetLeaders,
+                        FieldMatrix.Systematic fieldSystematicG, FieldSyndromeDecoder fieldSyndromeDecoder, Decoder decoder) {
+        this.n = G[0].length;
+        this.k = G.length;
+        this.G = G;
+        this.H = H;
+        this.q = q;
+        this.correctionRadius = correctionRadius;
+        this.decodingStrategy = decodingStrategy;
+        this.tableEncoder = fieldSystematicG == null ? new TableEncoder(Bits.pack(G), n) : null;
+        this.systematicG = systematicG;
+        this.cosetLeaders = cosetLeaders;
+        this.syndromeDecoder = cosetLeaders != null ? new SyndromeDecoder(H, cosetLeaders) : null;
+        this.fieldSystematicG = fieldSystematicG;
+        this.fieldSyndromeDecoder = fieldSyndromeDecoder;
+        this.decoder = decoder;
+    }
+
+    /**
+     * Generates a random systematic k x n code over GF(q) and its coset leaders.
+     *
+     * @param k                number of rows
+     * @param n                number of columns
+     * @param q                alphabet size, a prime power
+     * @param correctionRadius largest weight to correct, see {@link CosetLeaderBuilder}
+     * @param decodingStrategy decoding strategy of binary codes
+     * @return code context
+     */
+    public static CodeContext generate(int k, int n, int q, int correctionRadius, DecodingStrategy decodingStrategy) {
+        int[][] G = q > 2
+                ? encoderDecoder.generateGeneratingMatrix(k, n, GaloisField.of(q))
+                : encoderDecoder.generateGeneratingMatrix(k, n);
+        return of(G, q, correctionRadius, decodingStrategy);
+    }
+
+    /**
+     * Derives H and the coset leaders from a generator matrix. Full binary tables go through
+     * the on-disk cache, bounded ones are cheap enough to rebuild.
+     *
+     * @param G                generator matrix
+     * @param q                alphabet size, a prime power
+     * @param correctionRadius largest weight to correct, see {@link CosetLeaderBuilder}
+     * @param decodingStrategy decoding strategy of binary codes
+     * @return code context
+     */
+    public static CodeContext of(int[][] G, int q, int correctionRadius, DecodingStrategy decodingStrategy) {
+        G = copy(G);
+        if (q > 2) {
+            FieldMatrix.Systematic systematic = encoderDecoder.toSystematic(G, GaloisField.of(q));
+            int[][] H = encoderDecoder.generateParityCheckMatrix(systematic);
+            FieldSyndromeDecoder decoder = encoderDecoder.findCosetLeaders(H, systematic, correctionRadius);
+            return new CodeContext(G, H, q, correctionRadius, decodingStrategy, null, null, systematic, decoder, null);
+        }
+        BitMatrix.Systematic systematic = encoderDecoder.toSystematic(G);
+        int[][] H = encoderDecoder.generateParityCheckMatrix(systematic);
+        CosetLeaderTable cosetLeaders = correctionRadius == CosetLeaderBuilder.UNBOUNDED
+                ? cosetLeaderCache.getOrBuild(H, encoderDecoder::findCosetLeaders)
+                : encoderDecoder.findCosetLeaders(H, correctionRadius);
+        return new CodeContext(G, H, q, correctionRadius, decodingStrategy, systematic, cosetLeaders, null, null, null);
+    }
+
+    /**
+     * A random regular LDPC code, decoded iteratively instead of through coset leaders.
+     *
+     * @param n            length of the codeword
+     * @param columnWeight number of checks per bit
+     * @param rowWeight    number of bits per check
+     * @param algorithm    iterative decoding algorithm
+     * @return code context
+     */
+    public static CodeContext ldpc(int n, int columnWeight, int rowWeight, LdpcCode.Algorithm algorithm) {
+        LdpcCode code = LdpcCode.generate(n, columnWeight, rowWeight, new Random());
+        return structured(code.getGenerator(), code.getParityCheckMatrix(), code.decoder(algorithm));
+    }
+
+    /**
+     * A Hamming code, which corrects a single error without coset leaders.
+     * @param r number of parity bits
+     * @return code context
+     */
+    public static CodeContext hamming(int r) {
+        HammingCode code = encoderDecoder.generateHammingCode(r);
+        return structured(code.getGenerator(), code.getParityCheckMatrix(), code);
+    }
+
+    /**
+     * A BCH code decoded algebraically, so lengths up to 2^m - 1 = 1023 and beyond need no
+     * syndrome table.
+     *
+     * @param m field degree
+     * @param t number of correctable errors
+     * @return code context
+     */
+    public static CodeContext bch(int m, int t) {
+        BchCode code = encoderDecoder.generateBchCode(m, t);
+        return structured(code.getGenerator(), code.getParityCheckMatrix(), code);
+    }
+
+    private static CodeContext structured(int[][] G, int[][] H, Decoder decoder) {
+        return new CodeContext(G, H, 2, CosetLeaderBuilder.UNBOUNDED, DecodingStrategy.STEP_BY_STEP, null, null, null, null, decoder);
+    }
+
+    /**
+     * @param decodingStrategy decoding strategy of binary codes
+     * @return this code decoded with the given strategy
+     */
+    public CodeContext withDecodingStrategy(DecodingStrategy decodingStrategy) {
+        return new CodeContext(G, H, q, correctionRadius, decodingStrategy, systematicG, cosetLeaders,
+                fieldSystematicG, fieldSyndromeDecoder, decoder);
+    }
+
+    /**
+     * @param correctionRadius largest weight to correct
+     * @return this code with coset leaders rebuilt for the radius; structured codes are returned as is
+     */
+    public CodeContext withCorrectionRadius(int correctionRadius) {
+        return decoder != null ? this : of(G, q, correctionRadius, decodingStrategy);
+    }
+
+    private static int[][] copy(int[][] matrix) {
+        int[][] copy = new int[matrix.length][];
+        for (int i = 0; i < matrix.length; i++) {
+            copy[i] = matrix[i].clone();
+        }
+        return copy;
+    }
+
+    public int[][] getG() {
+        return copy(G);
+    }
+
+    public int[][] getH() {
+        return copy(H);
+    }
+
+    /**
+     * @return whether a syndrome decoder with coset leaders decodes this code
+     */
+    public boolean hasCosetLeaders() {
+        return decoder == null;
+    }
+
+    public int[] encode(int[] message) {
+        long start = System.nanoTime();
+        int[] codeword = fieldSystematicG != null
+                ? encoderDecoder.encode(message, G, fieldSystematicG.generator().getField())
+                : tableEncoder.encode(message);
+        Metrics.record(Metrics.Stage.ENCODE, start, 1);
+        return codeword;
+    }
+
+    /**
+     * Encodes a batch of messages; binary codes are encoded bit-sliced.
+     * @param messages messages of length k
+     * @return codewords
+     */
+    public int[][] encodeBatch(int[][] messages) {
+        long start = System.nanoTime();
+        int[][] codewords = fieldSystematicG != null
+                ? encoderDecoder.encodeBatch(messages, G, fieldSystematicG.generator().getField())
+                : encoderDecoder.encodeBatch(messages, G);
+        Metrics.record(Metrics.Stage.ENCODE, start, messages.length);
+        return codewords;
+    }
+
+    /**
+     * Encodes a batch of packed messages of a binary code bit-sliced.
+     * @param messages packed messages of k bits
+     * @return codewords
+     */
+    public int[][] encodeBatch(long[][] messages) {
+        if (q != 2) {
+            throw new IllegalStateException("Packed messages are binary, the code is over GF(" + q + ")");
+        }
+        long start = System.nanoTime();
+        int[][] codewords = encoderDecoder.encodeBatch(messages, G);
+        Metrics.record(Metrics.Stage.ENCODE, start, messages.length);
+        return codewords;
+    }
+
+    public int[] decode(int[] received) {
+        return decodeBatch(new int[][]{received}, null)[0];
+    }
+
+    /**
+     * Decodes a batch of received vectors. Binary syndromes are computed bit-sliced.
+     *
+     * @param received      received vectors
+     * @param uncorrectable if not null, set for the vectors whose syndrome has no coset leader
+     * @return corrected codewords
+     */
+    public int[][] decodeBatch(int[][] received, boolean[] uncorrectable) {
+        int[][] corrected = new int[received.length][];
+        if (decoder != null) {
+            long start = System.nanoTime();
+            for (int i = 0; i < received.length; i++) {
+                corrected[i] = decoder.decode(received[i]);
+            }
+            Metrics.record(Metrics.Stage.DECODE, start, received.length);
+        } else if (fieldSyndromeDecoder != null) {
+            long start = System.nanoTime();
+            int[] syndromes = new int[received.length];
+            for (int i = 0; i < received.length; i++) {
+                syndromes[i] = fieldSyndromeDecoder.syndrome(received[i]);
+            }
+            Metrics.record(Metrics.Stage.SYNDROME, start, received.length);
+            start = System.nanoTime();
+            for (int i = 0; i < received.length; i++) {
+                if (uncorrectable != null) {
+                    uncorrectable[i] = !fieldSyndromeDecoder.isCorrectable(syndromes[i]);
+                }
+                corrected[i] = fieldSyndromeDecoder.decode(received[i], syndromes[i]);
+            }
+            Metrics.record(Metrics.Stage.DECODE, start, received.length);
+        } else {
+            long start = System.nanoTime();
+            int[] syndromes = encoderDecoder.computeSyndromes(H, received);
+            Metrics.record(Metrics.Stage.SYNDROME, start, received.length);
+            start = System.nanoTime();
+            for (int i = 0; i < received.length; i++) {
+                if (uncorrectable != null) {
+                    uncorrectable[i] = !syndromeDecoder.isCorrectable(syndromes[i]);
+                }
+                corrected[i] = syndromeDecoder.decode(received[i], syndromes[i], decodingStrategy);
+            }
+            Metrics.record(Metrics.Stage.DECODE, start, received.length);
+        }
+        return corrected;
+    }
+
+    /**
+     * Recovers the message of a corrected codeword.
+     * @param codeword codeword
+     * @return message of length k
+     */
+    public int[] message(int[] codeword) {
+        if (decoder != null) {
+            return decoder.message(codeword);
+        }
+        if (fieldSystematicG != null) {
+            return fieldSystematicG.message(codeword);
+        }
+        return systematicG.message(codeword);
+    }
+
+    /**
+     * @return codeword positions the message is read from, in message order
+     */
+    public int[] informationSet() {
+        if (decoder != null) {
+            return decoder.informationSet();
+        }
+        if (fieldSystematicG != null) {
+            return fieldSystematicG.informationSet();
+        }
+        return systematicG.informationSet();
+    }
+}
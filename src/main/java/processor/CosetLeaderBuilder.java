@@ -0,0 +1,397 @@
+package processor;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Builds the coset leader table by visiting error patterns in order of increasing weight.
+ * Patterns of one weight are enumerated in colexicographic order (the order of Gosper's hack,
+ * i.e. by increasing integer value), and the syndrome of each pattern is updated from the
+ * previous one by XORing the syndromes of the columns of H that changed.
+ * <p>
+ * Large layers are split by pattern rank across the common fork/join pool. Workers claim
+ * syndromes lock-free by lowering a per-syndrome rank with CAS, so the pattern that wins is
+ * always the first one in enumeration order and the table does not depend on scheduling.
+ * <p>
+ * Once the layers are filled, every leader is replaced by the one step-by-step decoding finds
+ * in its coset, so decoding with the table and step by step always gives the same codeword.
+ * <p>
+ * The build can stop at a correction radius t, leaving the syndromes of heavier patterns
+ * unassigned, so it costs the sum of C(n, i) for i &lt;= t instead of 2^(n-k) leaders.
+ */
+public class CosetLeaderBuilder {
+    private static final long PARALLEL_THRESHOLD = 1 << 15;
+    private static final long UNCLAIMED = Long.MAX_VALUE;
+    /** Syndrome length above which a table of unknown radius starts out sparse. */
+    private static final int SPARSE_SYNDROME_LENGTH = 20;
+
+    /** Radius that fills every coset. */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+    /** Radius derived from the minimum distance d of the code: t = (d - 1) / 2. */
+    public static final int FROM_MINIMUM_DISTANCE = -1;
+
+    private final int n;
+    private final int m;
+    private final int[] columnSyndromes;
+    private final boolean parallel;
+
+    public CosetLeaderBuilder(int[][] H) {
+        this(H, ForkJoinPool.getCommonPoolParallelism() > 1);
+    }
+
+    public CosetLeaderBuilder(int[][] H, boolean parallel) {
+        this.n = H[0].length;
+        this.m = H.length;
+        this.columnSyndromes = columnSyndromes(H);
+        this.parallel = parallel;
+    }
+
+    /**
+     * Computes the syndrome of every unit vector, i.e. every column of H as an integer.
+     * @param H parity-check matrix
+     * @return syndrome of column j at index j
+     */
+    public static int[] columnSyndromes(int[][] H) {
+        int[] columns = new int[H[0].length];
+        for (int j = 0; j < columns.length; j++) {
+            for (int[] row : H) {
+                columns[j] = (columns[j] << 1) | row[j];
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Finds a minimum weight leader for every syndrome.
+     * Stops as soon as every coset has a leader.
+     *
+     * @return table of coset leaders
+     */
+    public CosetLeaderTable build() {
+        return build(UNBOUNDED);
+    }
+
+    /**
+     * Finds minimum weight leaders for the cosets of all error patterns up to weight radius.
+     * <p>
+     * With {@link #FROM_MINIMUM_DISTANCE} the layers are filled until a pattern lands in a
+     * coset that already has a leader. That first happens at weight t + 1 with t = (d - 1) / 2,
+     * so that layer is stopped and removed again.
+     *
+     * @param radius largest weight to enumerate, {@link #UNBOUNDED} or {@link #FROM_MINIMUM_DISTANCE}
+     * @return table of coset leaders, other syndromes unassigned
+     */
+    public CosetLeaderTable build(int radius) {
+        boolean derive = radius == FROM_MINIMUM_DISTANCE;
+        int maxWeight = derive ? n : Math.min(radius, n);
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("Invalid correction radius: " + radius);
+        }
+
+        CosetLeaderTable table;
+        long leaders = derive ? -1 : leaderCount(maxWeight);
+        if (derive ? m > SPARSE_SYNDROME_LENGTH : leaders < (1L << m) / 4) {
+            table = CosetLeaderTable.sparse(n, m, derive ? 1 << 16 : (int) leaders);
+        } else {
+            table = new CosetLeaderTable(n, m);
+        }
+
+        AtomicLongArray ranks = null;
+        int weight = 0;
+        int reached = 0;
+        for (; weight <= maxWeight && !isFull(table); weight++) {
+            long[][] binomial = binomial(n, weight);
+            long layerSize = binomial[n][weight];
+            int assignedBefore = table.getAssignedCount();
+            if (parallel && !table.isSparse() && layerSize >= PARALLEL_THRESHOLD && layerSize != Long.MAX_VALUE) {
+                if (ranks == null) {
+                    ranks = new AtomicLongArray(table.size());
+                    for (int s = 0; s < table.size(); s++) {
+                        ranks.set(s, UNCLAIMED);
+                    }
+                }
+                new ParallelLayer(table, ranks, binomial, weight).fill();
+            } else {
+                fillLayer(table, weight, derive);
+            }
+
+            // A layer that gave every pattern its own coset keeps the radius growing
+            if (table.getAssignedCount() - assignedBefore == layerSize) {
+                reached = weight;
+            } else if (derive) {
+                table.unassignAbove(reached);
+                break;
+            }
+        }
+        table.setRadius(derive ? reached : weight - 1);
+        alignWithStepByStep(table);
+        return table;
+    }
+
+    /**
+     * Replaces every leader by the one step-by-step decoding arrives at. Step-by-step keeps a
+     * flip of position i, in increasing order, whenever it lowers the weight of the coset, so of
+     * the minimum weight patterns of a coset it picks the one with the smallest lowest position,
+     * then the smallest next position and so on. The colex order of the layers breaks such ties
+     * differently.
+     */
+    private void alignWithStepByStep(CosetLeaderTable table) {
+        IntStream syndromes = Arrays.stream(table.assignedSyndromes());
+        (parallel ? syndromes.parallel() : syndromes).forEach(s -> table.replace(s, stepByStepLeader(table, s)));
+    }
+
+    /**
+     * Only weights are looked up, and those do not depend on which leader a coset holds. A
+     * syndrome of weight w &lt;= radius always has neighbours of weight w - 1, which are
+     * assigned too, so the walk ends with syndrome 0.
+     */
+    private long[] stepByStepLeader(CosetLeaderTable table, int syndrome) {
+        long[] pattern = new long[Bits.words(n)];
+        int w = table.weight(syndrome);
+        for (int i = 0; w != 0 && i < n; i++) {
+            int next = syndrome ^ columnSyndromes[i];
+            int weight = table.weight(next);
+            if (weight < w) {
+                Bits.flip(pattern, i);
+                syndrome = next;
+                w = weight;
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * @param radius largest weight
+     * @return number of error patterns up to weight radius, saturating at Long.MAX_VALUE
+     */
+    private long leaderCount(int radius) {
+        long[][] binomial = binomial(n, radius);
+        long count = 0;
+        for (int weight = 0; weight <= radius; weight++) {
+            count += binomial[n][weight];
+            if (count < 0) {
+                return Long.MAX_VALUE;
+            }
+        }
+        return count;
+    }
+
+    private boolean isFull(CosetLeaderTable table) {
+        return table.getAssignedCount() == table.size();
+    }
+
+    /**
+     * Visits all error patterns of the given weight and assigns them to cosets without a leader.
+     * @param table table of coset leaders
+     * @param weight weight of the error patterns
+     * @param stopOnCollision stop at the first pattern whose coset already has a leader
+     */
+    private void fillLayer(CosetLeaderTable table, int weight, boolean stopOnCollision) {
+        int[] positions = new int[weight];
+        long[] pattern = new long[Bits.words(n)];
+        int syndrome = 0;
+        for (int i = 0; i < weight; i++) {
+            positions[i] = i;
+            Bits.flip(pattern, i);
+            syndrome ^= columnSyndromes[i];
+        }
+
+        while (true) {
+            if (!table.isAssigned(syndrome)) {
+                table.assign(syndrome, pattern, weight);
+                if (isFull(table)) {
+                    return;
+                }
+            } else if (stopOnCollision) {
+                return;
+            }
+
+            // Find the lowest position that can move up by one
+            int j = 0;
+            while (j < weight - 1 && positions[j] + 1 == positions[j + 1]) {
+                j++;
+            }
+            if (j == weight || positions[j] + 1 >= n) {
+                return;
+            }
+
+            // Move position j up and reset the positions below it to 0..j-1
+            for (int i = 0; i <= j; i++) {
+                Bits.flip(pattern, positions[i]);
+                syndrome ^= columnSyndromes[positions[i]];
+            }
+            positions[j]++;
+            Bits.flip(pattern, positions[j]);
+            syndrome ^= columnSyndromes[positions[j]];
+            for (int i = 0; i < j; i++) {
+                positions[i] = i;
+                Bits.flip(pattern, i);
+                syndrome ^= columnSyndromes[i];
+            }
+        }
+    }
+
+    /**
+     * Pascal's triangle up to C(n, w), saturating at Long.MAX_VALUE.
+     * @param n largest top value
+     * @param w largest bottom value
+     * @return binomial[x][y] = C(x, y)
+     */
+    private static long[][] binomial(int n, int w) {
+        long[][] binomial = new long[n + 1][w + 1];
+        for (int x = 0; x <= n; x++) {
+            binomial[x][0] = 1;
+            for (int y = 1; y <= Math.min(x, w); y++) {
+                long sum = binomial[x - 1][y - 1] + binomial[x - 1][y];
+                binomial[x][y] = sum < 0 ? Long.MAX_VALUE : sum;
+            }
+        }
+        return binomial;
+    }
+
+    /**
+     * One weight layer filled in parallel. In colex order the rank of the positions
+     * c_0 &lt; c_1 &lt; ... &lt; c_(w-1) is the sum of C(c_i, i + 1), so any rank range can be
+     * started independently by unranking its first pattern.
+     */
+    private class ParallelLayer {
+        private final CosetLeaderTable table;
+        private final AtomicLongArray ranks;
+        private final long[][] binomial;
+        private final int weight;
+        private final int remaining;
+        private final AtomicInteger claimed = new AtomicInteger();
+        private volatile long lastUsefulRank = Long.MAX_VALUE;
+
+        ParallelLayer(CosetLeaderTable table, AtomicLongArray ranks, long[][] binomial, int weight) {
+            this.table = table;
+            this.ranks = ranks;
+            this.binomial = binomial;
+            this.weight = weight;
+            this.remaining = table.size() - table.getAssignedCount();
+        }
+
+        void fill() {
+            long layerSize = binomial[n][weight];
+            long chunk = Math.max(PARALLEL_THRESHOLD / 8, layerSize / (ForkJoinPool.getCommonPoolParallelism() * 16L));
+            new Range(0, layerSize, chunk).invoke();
+
+            // The lowest rank claimed for each syndrome becomes its leader
+            for (int s = 0; s < table.size(); s++) {
+                long rank = ranks.get(s);
+                if (rank != UNCLAIMED) {
+                    table.assign(s, pattern(unrank(rank)), weight);
+                    ranks.set(s, UNCLAIMED);
+                }
+            }
+        }
+
+        private int[] unrank(long rank) {
+            int[] positions = new int[weight];
+            int c = n - 1;
+            for (int i = weight - 1; i >= 0; i--) {
+                while (binomial[c][i + 1] > rank) {
+                    c--;
+                }
+                positions[i] = c;
+                rank -= binomial[c][i + 1];
+                c--;
+            }
+            return positions;
+        }
+
+        private long[] pattern(int[] positions) {
+            long[] pattern = new long[Bits.words(n)];
+            for (int position : positions) {
+                Bits.flip(pattern, position);
+            }
+            return pattern;
+        }
+
+        private void scan(long from, long to) {
+            int[] positions = unrank(from);
+            int syndrome = 0;
+            for (int position : positions) {
+                syndrome ^= columnSyndromes[position];
+            }
+
+            for (long rank = from; rank < to && rank <= lastUsefulRank; rank++) {
+                if (!table.isAssigned(syndrome)) {
+                    claim(syndrome, rank);
+                }
+                if (rank + 1 == to) {
+                    return;
+                }
+
+                int j = 0;
+                while (j < weight - 1 && positions[j] + 1 == positions[j + 1]) {
+                    j++;
+                }
+                for (int i = 0; i <= j; i++) {
+                    syndrome ^= columnSyndromes[positions[i]];
+                }
+                positions[j]++;
+                syndrome ^= columnSyndromes[positions[j]];
+                for (int i = 0; i < j; i++) {
+                    positions[i] = i;
+                    syndrome ^= columnSyndromes[i];
+                }
+            }
+        }
+
+        private void claim(int syndrome, long rank) {
+            long current;
+            do {
+                current = ranks.get(syndrome);
+                if (rank >= current) {
+                    return;
+                }
+            } while (!ranks.compareAndSet(syndrome, current, rank));
+
+            if (current == UNCLAIMED && claimed.incrementAndGet() == remaining) {
+                // Every coset has a candidate now and ranks only decrease from here,
+                // so no pattern above the current maximum can win anymore
+                long max = 0;
+                for (int s = 0; s < table.size(); s++) {
+                    if (!table.isAssigned(s)) {
+                        max = Math.max(max, ranks.get(s));
+                    }
+                }
+                lastUsefulRank = max;
+            }
+        }
+
+        private class Range extends RecursiveAction {
+            @Serial
+            private static final long serialVersionUID = 1L;
+
+            private final long from;
+            private final long to;
+            private final long chunk;
+
+            Range(long from, long to, long chunk) {
+                this.from = from;
+                this.to = to;
+                this.chunk = chunk;
+            }
+
+            @Override
+            protected void compute() {
+                if (from > lastUsefulRank) {
+                    return;
+                }
+                if (to - from <= chunk) {
+                    scan(from, to);
+                    return;
+                }
+                long middle = from + (to - from) / 2;
+                invokeAll(new Range(from, middle, chunk), new Range(middle, to, chunk));
+            }
+        }
+    }
+}
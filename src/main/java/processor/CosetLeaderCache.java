@@ -0,0 +1,273 @@
+package processor;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk cache of coset leader tables keyed by the SHA-256 of the parity-check matrix.
+ * <p>
+ * File layout (big-endian):
+ * <pre>
+ * magic | version | n | m | H digest (32 bytes) | payload CRC32 | header CRC32
+ * weights (int per syndrome) | patterns (words longs per syndrome)
+ * </pre>
+ * Files are read and written through a channel in chunks of 1 MiB. Nothing is left mapped, so a
+ * file can be replaced or deleted on any platform right after it was read. Reading a file
+ * refreshes its modification time, and the least recently used files are deleted once the
+ * directory exceeds its entry or size limit.
+ * <p>
+ * The payload checksum is verified once per file: the cache remembers the modification time of
+ * every file it wrote or verified, and skips the checksum while the file still has that time.
+ */
+public class CosetLeaderCache {
+    private static final int MAGIC = 0x434F534C; // "COSL"
+    private static final int VERSION = 2;
+    private static final int DIGEST_LENGTH = 32;
+    private static final int HEADER_LENGTH = 4 * 4 + DIGEST_LENGTH + 8 + 8;
+    private static final int CHUNK = 1 << 20;
+    private static final String EXTENSION = ".cosets";
+
+    /** Tables smaller than this are cheaper to rebuild than to read from disk. */
+    private static final int MIN_SYNDROME_LENGTH = 12;
+
+    private final Path directory;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Map<Path, FileTime> verified = new ConcurrentHashMap<>();
+
+    public CosetLeaderCache() {
+        this(Paths.get("cache"), 32, 4L << 30);
+    }
+
+    public CosetLeaderCache(Path directory, int maxEntries, long maxBytes) {
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cached table for H, building and storing it if there is no valid entry.
+     * @param H parity-check matrix
+     * @param builder builds the table on a cache miss
+     * @return table of coset leaders
+     */
+    public CosetLeaderTable getOrBuild(int[][] H, Function<int[][], CosetLeaderTable> builder) {
+        if (H.length < MIN_SYNDROME_LENGTH) {
+            return builder.apply(H);
+        }
+
+        byte[] digest = digest(H);
+        Path file = directory.resolve(HexFormat.of().formatHex(digest) + EXTENSION);
+        if (Files.exists(file)) {
+            try {
+                boolean verify = !Files.getLastModifiedTime(file).equals(verified.get(file));
+                CosetLeaderTable table = read(file, digest, H[0].length, H.length, verify);
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+                verified.put(file, Files.getLastModifiedTime(file));
+                return table;
+            } catch (IOException e) {
+                verified.remove(file);
+                Trace.event(Trace.Level.ERROR, "Ignoring invalid coset leader cache file " + file + ": " + e.getMessage());
+            }
+        }
+
+        CosetLeaderTable table = builder.apply(H);
+        if (table.isSparse()) {
+            return table;
+        }
+        try {
+            write(file, digest, table);
+            verified.put(file, Files.getLastModifiedTime(file));
+            evict();
+        } catch (IOException e) {
+            Trace.event(Trace.Level.ERROR, "Failed to cache coset leaders: " + e.getMessage());
+        }
+        return table;
+    }
+
+    private static byte[] digest(int[][] H) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            ByteBuffer dimensions = ByteBuffer.allocate(8).putInt(H.length).putInt(H[0].length);
+            sha.update(dimensions.array());
+            for (long[] row : Bits.pack(H)) {
+                ByteBuffer buffer = ByteBuffer.allocate(row.length * 8);
+                buffer.asLongBuffer().put(row);
+                sha.update(buffer.array());
+            }
+            return sha.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads a table back; the header is always checked, the payload checksum only if verify is set.
+     */
+    private CosetLeaderTable read(Path file, byte[] digest, int n, int m, boolean verify) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_LENGTH) {
+                throw new IOException("file is too short");
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            readFully(channel, header);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("unknown format");
+            }
+            if (header.getInt() != n || header.getInt() != m) {
+                throw new IOException("dimensions do not match");
+            }
+            byte[] storedDigest = new byte[DIGEST_LENGTH];
+            header.get(storedDigest);
+            long payloadChecksum = header.getLong();
+            long headerChecksum = header.getLong();
+            if (!Arrays.equals(storedDigest, digest) || headerChecksum != crc(header.duplicate().position(0).limit(HEADER_LENGTH - 8))) {
+                throw new IOException("header checksum mismatch");
+            }
+
+            int size = 1 << m;
+            int words = Bits.words(n);
+            if (channel.size() != HEADER_LENGTH + size * 4L + (long) size * words * 8) {
+                throw new IOException("unexpected file size");
+            }
+
+            CRC32 crc = verify ? new CRC32() : null;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK);
+            int[] weights = new int[size];
+            for (int offset = 0; offset < size; ) {
+                int count = Math.min(size - offset, CHUNK / 4);
+                readChunk(channel, buffer, count * 4, crc).asIntBuffer().get(weights, offset, count);
+                offset += count;
+            }
+            long[] patterns = new long[size * words];
+            for (int offset = 0; offset < patterns.length; ) {
+                int count = Math.min(patterns.length - offset, CHUNK / 8);
+                readChunk(channel, buffer, count * 8, crc).asLongBuffer().get(patterns, offset, count);
+                offset += count;
+            }
+            if (verify && crc.getValue() != payloadChecksum) {
+                throw new IOException("payload checksum mismatch");
+            }
+            return new CosetLeaderTable(n, m, patterns, weights);
+        }
+    }
+
+    /**
+     * Reads the next bytes of the channel into the start of the buffer.
+     * @param crc checksum to update, or null
+     * @return the buffer, flipped to the bytes read
+     */
+    private static ByteBuffer readChunk(FileChannel channel, ByteBuffer buffer, int bytes, CRC32 crc) throws IOException {
+        buffer.clear().limit(bytes);
+        readFully(channel, buffer);
+        buffer.flip();
+        if (crc != null) {
+            crc.update(buffer.duplicate());
+        }
+        return buffer;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("file is too short");
+            }
+        }
+    }
+
+    private void write(Path file, byte[] digest, CosetLeaderTable table) throws IOException {
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, "cosets", ".tmp");
+        try {
+            int[] weights = table.weights();
+            long[] patterns = table.patterns();
+            CRC32 crc = new CRC32();
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK);
+                channel.position(HEADER_LENGTH);
+                for (int offset = 0; offset < weights.length; ) {
+                    int count = Math.min(weights.length - offset, CHUNK / 4);
+                    buffer.clear().asIntBuffer().put(weights, offset, count);
+                    writeChunk(channel, buffer.limit(count * 4), crc);
+                    offset += count;
+                }
+                for (int offset = 0; offset < patterns.length; ) {
+                    int count = Math.min(patterns.length - offset, CHUNK / 8);
+                    buffer.clear().asLongBuffer().put(patterns, offset, count);
+                    writeChunk(channel, buffer.limit(count * 8), crc);
+                    offset += count;
+                }
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+                header.putInt(MAGIC).putInt(VERSION).putInt(table.getN()).putInt(table.getSyndromeLength());
+                header.put(digest).putLong(crc.getValue());
+                header.putLong(crc(header.duplicate().flip()));
+                header.flip();
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void writeChunk(FileChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException {
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static long crc(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer);
+        return crc.getValue();
+    }
+
+    /**
+     * Deletes the least recently used cache files until the limits are met.
+     */
+    private void evict() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(path -> path.toString().endsWith(EXTENSION))
+                    .sorted(Comparator.comparing(CosetLeaderCache::lastModified).reversed())
+                    .toList();
+        }
+
+        long totalBytes = 0;
+        for (int i = 0; i < files.size(); i++) {
+            totalBytes += Files.size(files.get(i));
+            if (i >= maxEntries || totalBytes > maxBytes) {
+                Files.deleteIfExists(files.get(i));
+                verified.remove(files.get(i));
+            }
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
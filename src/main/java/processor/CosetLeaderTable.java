@@ -0,0 +1,296 @@
+package processor;
+
+import lombok.Getter;
+import model.CosetLeader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Coset leaders indexed directly by the syndrome value.
+ * Error patterns are stored packed, one fixed-size slot of words per syndrome.
+ * <p>
+ * A table bounded to a correction radius holds far fewer leaders than there are syndromes;
+ * it can be sparse instead, with the slots addressed through an open-addressing hash of the
+ * syndrome. Syndromes without a slot are unassigned.
+ */
+public class CosetLeaderTable {
+    @Getter
+    private final int n;
+    @Getter
+    private final int syndromeLength;
+    private final int words;
+    private long[] patterns;
+    private int[] weights;
+    private int[] keys;
+    @Getter
+    private int assignedCount;
+    /**
+     * Weight up to which leaders were searched: the requested or derived correction radius,
+     * or the covering radius of a full table.
+     */
+    @Getter
+    private int radius;
+
+    /**
+     * Creates an empty table for codewords of length n and syndromes of m bits.
+     * Every syndrome starts with weight n + 1, meaning no leader has been found yet.
+     *
+     * @param n length of the codeword
+     * @param m length of the syndrome
+     */
+    public CosetLeaderTable(int n, int m) {
+        if (m > 30) {
+            throw new IllegalArgumentException("Too many syndromes for a coset leader table: n - k = " + m);
+        }
+        this.n = n;
+        this.syndromeLength = m;
+        this.words = Bits.words(n);
+        this.patterns = new long[Math.multiplyExact(1 << m, words)];
+        this.weights = new int[1 << m];
+        Arrays.fill(weights, n + 1);
+    }
+
+    /**
+     * Creates an empty sparse table sized for the expected number of leaders; it grows as needed.
+     *
+     * @param n length of the codeword
+     * @param m length of the syndrome
+     * @param expectedLeaders expected number of assigned syndromes
+     * @return empty sparse table
+     */
+    public static CosetLeaderTable sparse(int n, int m, int expectedLeaders) {
+        if (m > 30) {
+            throw new IllegalArgumentException("Too many syndromes for a coset leader table: n - k = " + m);
+        }
+        int capacity = Integer.highestOneBit(Math.max(16, expectedLeaders) * 2 - 1) * 2;
+        return new CosetLeaderTable(n, m, new long[Math.multiplyExact(capacity, Bits.words(n))], new int[capacity], emptyKeys(capacity));
+    }
+
+    private CosetLeaderTable(int n, int m, long[] patterns, int[] weights, int[] keys) {
+        this.n = n;
+        this.syndromeLength = m;
+        this.words = Bits.words(n);
+        this.patterns = patterns;
+        this.weights = weights;
+        this.keys = keys;
+    }
+
+    private static int[] emptyKeys(int capacity) {
+        int[] keys = new int[capacity];
+        Arrays.fill(keys, -1);
+        return keys;
+    }
+
+    /**
+     * Wraps existing storage, e.g. a table read back from the cache.
+     * @param n length of the codeword
+     * @param m length of the syndrome
+     * @param patterns packed error patterns, one slot of words per syndrome
+     * @param weights weight of each coset leader, n + 1 if unassigned
+     */
+    CosetLeaderTable(int n, int m, long[] patterns, int[] weights) {
+        this.n = n;
+        this.syndromeLength = m;
+        this.words = Bits.words(n);
+        this.patterns = patterns;
+        this.weights = weights;
+        for (int weight : weights) {
+            if (weight <= n) {
+                assignedCount++;
+                radius = Math.max(radius, weight);
+            }
+        }
+    }
+
+    void setRadius(int radius) {
+        this.radius = radius;
+    }
+
+    public boolean isSparse() {
+        return keys != null;
+    }
+
+    /**
+     * Dense storage of the table; only valid if it is not sparse.
+     */
+    long[] patterns() {
+        return patterns;
+    }
+
+    int[] weights() {
+        return weights;
+    }
+
+    /**
+     * @return number of syndromes, assigned or not
+     */
+    public int size() {
+        return 1 << syndromeLength;
+    }
+
+    /**
+     * Slot of a syndrome: the syndrome itself in a dense table, otherwise its hash slot or
+     * the empty slot where it would be inserted.
+     */
+    private int slot(int syndrome) {
+        if (keys == null) {
+            return syndrome;
+        }
+        int mask = keys.length - 1;
+        int slot = (syndrome * 0x9E3779B9) >>> Integer.numberOfLeadingZeros(mask);
+        while (keys[slot] != syndrome && keys[slot] != -1) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    public int weight(int syndrome) {
+        int slot = slot(syndrome);
+        return keys == null || keys[slot] == syndrome ? weights[slot] : n + 1;
+    }
+
+    public boolean isAssigned(int syndrome) {
+        return weight(syndrome) <= n;
+    }
+
+    /**
+     * Stores the error pattern as the leader of the syndrome's coset.
+     * @param syndrome syndrome value
+     * @param errorPattern packed error pattern
+     * @param weight Hamming weight of the error pattern
+     */
+    public void assign(int syndrome, long[] errorPattern, int weight) {
+        if (keys != null && (assignedCount + 1) * 2 > keys.length) {
+            grow();
+        }
+        int slot = slot(syndrome);
+        if (keys != null) {
+            if (keys[slot] != syndrome) {
+                keys[slot] = syndrome;
+                assignedCount++;
+            }
+        } else if (!isAssigned(syndrome)) {
+            assignedCount++;
+        }
+        System.arraycopy(errorPattern, 0, patterns, slot * words, words);
+        weights[slot] = weight;
+    }
+
+    /**
+     * Replaces the leader of an assigned syndrome by another pattern of the same weight. The
+     * storage is not changed otherwise, so distinct syndromes can be replaced concurrently.
+     * @param syndrome assigned syndrome value
+     * @param errorPattern packed error pattern
+     */
+    void replace(int syndrome, long[] errorPattern) {
+        System.arraycopy(errorPattern, 0, patterns, slot(syndrome) * words, words);
+    }
+
+    /**
+     * @return syndromes that have a leader, in increasing order for a dense table
+     */
+    int[] assignedSyndromes() {
+        if (keys != null) {
+            return Arrays.stream(keys).filter(s -> s != -1).toArray();
+        }
+        return IntStream.range(0, weights.length).filter(s -> weights[s] <= n).toArray();
+    }
+
+    private void grow() {
+        rehash(Math.multiplyExact(keys.length, 2), n);
+    }
+
+    /**
+     * Removes the leaders heavier than the given weight, e.g. a layer that turned out to
+     * exceed the correction radius.
+     * @param weight largest weight to keep
+     */
+    void unassignAbove(int weight) {
+        if (keys != null) {
+            rehash(keys.length, weight);
+            return;
+        }
+        for (int s = 0; s < weights.length; s++) {
+            if (weights[s] > weight && weights[s] <= n) {
+                weights[s] = n + 1;
+                Arrays.fill(patterns, s * words, (s + 1) * words, 0);
+                assignedCount--;
+            }
+        }
+    }
+
+    /**
+     * Moves the leaders up to maxWeight into sparse storage of the given capacity.
+     */
+    private void rehash(int capacity, int maxWeight) {
+        int[] oldKeys = keys;
+        int[] oldWeights = weights;
+        long[] oldPatterns = patterns;
+        keys = emptyKeys(capacity);
+        weights = new int[capacity];
+        patterns = new long[Math.multiplyExact(capacity, words)];
+        assignedCount = 0;
+        for (int old = 0; old < oldKeys.length; old++) {
+            if (oldKeys[old] != -1 && oldWeights[old] <= maxWeight) {
+                int slot = slot(oldKeys[old]);
+                keys[slot] = oldKeys[old];
+                weights[slot] = oldWeights[old];
+                System.arraycopy(oldPatterns, old * words, patterns, slot * words, words);
+                assignedCount++;
+            }
+        }
+    }
+
+    /**
+     * XORs the coset leader of the syndrome into a packed received vector.
+     * @param r packed received vector
+     * @param syndrome syndrome of r, must be assigned
+     */
+    public void correct(long[] r, int syndrome) {
+        BitKernel.get().xorInto(r, patterns, slot(syndrome) * words);
+    }
+
+    public long[] getPackedErrorPattern(int syndrome) {
+        if (!isAssigned(syndrome)) {
+            return new long[words];
+        }
+        int slot = slot(syndrome);
+        return Arrays.copyOfRange(patterns, slot * words, (slot + 1) * words);
+    }
+
+    public int[] getErrorPattern(int syndrome) {
+        return isAssigned(syndrome) ? Bits.unpack(getPackedErrorPattern(syndrome), n) : null;
+    }
+
+    public int[] getSyndrome(int syndrome) {
+        int[] s = new int[syndromeLength];
+        for (int j = 0; j < syndromeLength; j++) {
+            s[j] = (syndrome >> (syndromeLength - 1 - j)) & 1;
+        }
+        return s;
+    }
+
+    public CosetLeader get(int syndrome) {
+        return new CosetLeader(getSyndrome(syndrome), getErrorPattern(syndrome), weight(syndrome));
+    }
+
+    /**
+     * Expands the table into coset leader records, e.g. for display.
+     * A sparse table only lists its assigned syndromes.
+     *
+     * @return coset leaders ordered by syndrome
+     */
+    public List<CosetLeader> getCosetLeaders() {
+        if (keys != null) {
+            return Arrays.stream(keys).filter(s -> s != -1).sorted().mapToObj(this::get).toList();
+        }
+        List<CosetLeader> cosetLeaders = new ArrayList<>(size());
+        for (int s = 0; s < size(); s++) {
+            cosetLeaders.add(get(s));
+        }
+        return cosetLeaders;
+    }
+}
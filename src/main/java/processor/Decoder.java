@@ -0,0 +1,25 @@
+package processor;
+
+/**
+ * Decoder of a structured code that corrects received vectors without a coset leader table.
+ */
+public interface Decoder {
+    /**
+     * Corrects a received vector.
+     * @param r received vector
+     * @return corrected codeword, or r unchanged where decoding failed
+     */
+    int[] decode(int[] r);
+
+    /**
+     * Extracts the message bits of a codeword.
+     * @param codeword codeword of the code
+     * @return message
+     */
+    int[] message(int[] codeword);
+
+    /**
+     * @return codeword positions the message is read from, in message order
+     */
+    int[] informationSet();
+}
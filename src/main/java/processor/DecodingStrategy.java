@@ -0,0 +1,13 @@
+package processor;
+
+public enum DecodingStrategy {
+    /**
+     * Flips the bits one by one and keeps a flip when it lowers the coset leader weight.
+     */
+    STEP_BY_STEP,
+    /**
+     * Subtracts the coset leader of the syndrome from the received vector in one lookup. The
+     * leaders are the ones step-by-step decoding finds, so both strategies give the same result.
+     */
+    COSET_LEADER
+}
@@ -5,8 +5,9 @@ import model.CosetLeader;
 import java.util.*;
 
 public class EncoderDecoder {
-    private final static Random random = new Random();
+    private static final ThreadLocal<SplittableRandom> random = ThreadLocal.withInitial(SplittableRandom::new);
     private static final boolean debug = false;
+    private static final BitKernel kernel = BitKernel.get();
 
     /**
      * Encodes a message using the generator matrix G.
@@ -28,6 +29,40 @@ public class EncoderDecoder {
         return c;
     }
 
+    /**
+     * Encodes a packed message using the packed generator matrix G.
+     * The codeword is the XOR of the rows of G selected by the message bits.
+     *
+     * @param m packed message to encode
+     * @param G packed generator matrix
+     * @return packed encoded message
+     */
+    public long[] encode(long[] m, long[][] G) {
+        long[] c = new long[G[0].length];
+        for (int j = 0; j < G.length; j++) {
+            if (Bits.get(m, j) != 0) {
+                kernel.xorInto(c, G[j], 0);
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Encodes a message over GF(q).
+     *
+     * @param m message to encode
+     * @param G generator matrix over the field
+     * @param field field of the code
+     * @return encoded message
+     */
+    public int[] encode(int[] m, int[][] G, GaloisField field) {
+        int[] c = new int[G[0].length];
+        for (int j = 0; j < m.length; j++) {
+            field.addScaled(c, G[j], m[j]);
+        }
+        return c;
+    }
+
     /**
      * Multiplies a matrix by a vector.
      * @param m vector
@@ -46,7 +81,8 @@ public class EncoderDecoder {
     }
 
     /**
-     * Introduces errors in a codeword.
+     * Introduces errors in a codeword, drawing the gaps between errors instead of testing
+     * every symbol (see {@link ErrorChannel}).
      * @param c codeword
      * @param pe probability of error
      * @param q number of symbols in the alphabet
@@ -56,37 +92,23 @@ public class EncoderDecoder {
         if (c == null || c.length == 0) {
             throw new IllegalArgumentException("Invalid codeword: " + Arrays.toString(c));
         }
-        int[] r = Arrays.copyOf(c, c.length);
+        if (q < 2) {
+            throw new IllegalArgumentException("Invalid value for q: " + q);
+        }
 
         if (debug) {
             System.out.println("\n=== Introducing Errors ===");
             System.out.println("Original codeword (c): " + Arrays.toString(c));
         }
 
-        for (int i = 0; i < r.length; i++) {
-            double a = random.nextDouble();
-            if (a < pe) {
-                if (q == 2) {
-                    r[i] ^= 1; // Flip the bit
-                } else if (q > 2) {
-                    // Change the symbol to a random one
-                    int currentSymbol = r[i];
-                    int newSymbol;
-                    do {
-                        newSymbol = random.nextInt(q);
-                    } while (newSymbol == currentSymbol);
-                    r[i] = newSymbol;
-                } else {
-                    throw new IllegalArgumentException("Invalid value for q: " + q);
-                }
+        int[] r = ErrorChannel.transmit(c, pe, q, random.get());
 
-                if (debug) {
+        if (debug) {
+            for (int i = 0; i < r.length; i++) {
+                if (r[i] != c[i]) {
                     System.out.printf("Error introduced at position %d: new symbol = %d%n%n", i, r[i]);
                 }
             }
-        }
-
-        if (debug) {
             System.out.println("Transmitted vector with errors (r): " + Arrays.toString(r));
         }
         return r;
@@ -100,6 +122,7 @@ public class EncoderDecoder {
      * @return generating matrix
      */
     public int[][] generateGeneratingMatrix(int k, int n) {
+        long start = System.nanoTime();
         int[][] matrix = new int[k][n];
         for (int i = 0; i < k; i++) {
             for (int j = 0; j < k; j++) {
@@ -109,41 +132,119 @@ public class EncoderDecoder {
                 matrix[i][j] = (int) (Math.random() * 2);
             }
         }
+        Metrics.record(Metrics.Stage.GENERATOR, start, 1);
+        return matrix;
+    }
+
+    /**
+     * Generates a random k x n generating matrix over GF(q).
+     *
+     * @param k number of rows
+     * @param n number of columns
+     * @param field field of the symbols
+     * @return generating matrix
+     */
+    public int[][] generateGeneratingMatrix(int k, int n, GaloisField field) {
+        long start = System.nanoTime();
+        int[][] matrix = new int[k][n];
+        for (int i = 0; i < k; i++) {
+            matrix[i][i] = 1;
+            for (int j = k; j < n; j++) {
+                matrix[i][j] = (int) (Math.random() * field.getSize());
+            }
+        }
+        Metrics.record(Metrics.Stage.GENERATOR, start, 1);
         return matrix;
     }
 
+    /**
+     * Generates a binary Hamming code, decoded by matching the syndrome with a column of H.
+     *
+     * @param r number of parity bits, the code is (2^r - 1, 2^r - 1 - r)
+     * @return Hamming code
+     */
+    public HammingCode generateHammingCode(int r) {
+        return new HammingCode(r);
+    }
+
+    /**
+     * Generates a binary BCH code, decoded with Berlekamp-Massey and a Chien search.
+     *
+     * @param m field degree, the code length is 2^m - 1
+     * @param t number of correctable errors
+     * @return BCH code
+     */
+    public BchCode generateBchCode(int m, int t) {
+        return new BchCode(m, t);
+    }
+
     /**
      * Generates the parity-check matrix H from the generator matrix G.
-     * G = [I_k | P]
-     * H = [P^T | I_(n-k)]
+     * G is first brought to systematic form G' = [I_k | P] by row reduction and a column
+     * permutation, then H = [P^T | I_(n-k)] has its columns permuted back.
      * @param G generator matrix
      * @return parity-check matrix
      */
     public int[][] generateParityCheckMatrix(int[][] G) {
+        return generateParityCheckMatrix(toSystematic(G));
+    }
+
+    /**
+     * Brings G to systematic form.
+     * @param G generator matrix
+     * @return systematic form of G with its column permutation
+     */
+    public BitMatrix.Systematic toSystematic(int[][] G) {
         int k = G.length;
         int n = G[0].length;
 
         if (n <= k) {
             throw new IllegalArgumentException("Invalid matrix dimensions: n must be greater than k to generate a parity-check matrix.");
         }
+        long start = System.nanoTime();
+        BitMatrix.Systematic systematic = BitMatrix.of(G).toSystematic();
+        Metrics.record(Metrics.Stage.SYSTEMATIC_FORM, start, 1);
+        return systematic;
+    }
 
-        int[][] P = new int[k][n - k];
-        for (int i = 0; i < k; i++) {
-            System.arraycopy(G[i], k, P[i], 0, n - k);
-        }
+    public int[][] generateParityCheckMatrix(BitMatrix.Systematic systematic) {
+        long start = System.nanoTime();
+        int[][] H = systematic.parityCheckMatrix().toArray();
+        Metrics.record(Metrics.Stage.PARITY_CHECK, start, 1);
 
-        int[][] Pt = new int[n - k][k];
-        for (int i = 0; i < k; i++) {
-            for (int j = 0; j < n - k; j++) {
-                Pt[j][i] = P[i][j];
-            }
+        if (debug) {
+            System.out.println("\n=== Parity-Check Matrix Generation ===");
+            System.out.println("Parity-check matrix (H):");
+            printMatrix(H);
         }
+        return H;
+    }
 
-        int[][] H = new int[n - k][n];
-        for (int i = 0; i < n - k; i++) {
-            System.arraycopy(Pt[i], 0, H[i], 0, k);
-            H[i][k + i] = 1;
+    /**
+     * Brings G over GF(q) to systematic form.
+     * @param G generator matrix
+     * @param field field of the code
+     * @return systematic form of G with its column permutation
+     */
+    public FieldMatrix.Systematic toSystematic(int[][] G, GaloisField field) {
+        if (G[0].length <= G.length) {
+            throw new IllegalArgumentException("Invalid matrix dimensions: n must be greater than k to generate a parity-check matrix.");
         }
+        long start = System.nanoTime();
+        FieldMatrix.Systematic systematic = FieldMatrix.of(G, field).toSystematic();
+        Metrics.record(Metrics.Stage.SYSTEMATIC_FORM, start, 1);
+        return systematic;
+    }
+
+    /**
+     * Generates the parity-check matrix H = [-P^T | I_(n-k)] of a code over GF(q).
+     * @param systematic systematic form of the generator matrix
+     * @return parity-check matrix
+     */
+    public int[][] generateParityCheckMatrix(FieldMatrix.Systematic systematic) {
+        long start = System.nanoTime();
+        int[][] H = systematic.parityCheckMatrix().toArray();
+        Metrics.record(Metrics.Stage.PARITY_CHECK, start, 1);
 
         if (debug) {
             System.out.println("\n=== Parity-Check Matrix Generation ===");
@@ -169,150 +270,239 @@ public class EncoderDecoder {
         return s;
     }
 
+    /**
+     * Computes the syndrome of a received vector over GF(q).
+     * @param H parity-check matrix
+     * @param r received vector
+     * @param field field of the code
+     * @return syndrome
+     */
+    public int[] computeSyndrome(int[][] H, int[] r, GaloisField field) {
+        int[] s = new int[H.length];
+        for (int i = 0; i < H.length; i++) {
+            s[i] = field.dot(H[i], r);
+        }
+        return s;
+    }
+
+    /**
+     * Computes the syndrome of a packed received vector.
+     * Row i of H becomes bit (H.length - 1 - i) of the result, so the value matches
+     * the order in which syndromes are enumerated for the coset leaders.
+     *
+     * @param H packed parity-check matrix
+     * @param r packed received vector
+     * @return syndrome as an integer
+     */
+    public int computeSyndrome(long[][] H, long[] r) {
+        if (H.length > 31) {
+            throw new IllegalArgumentException("Syndrome does not fit in an int: n - k = " + H.length);
+        }
+        int s = 0;
+        for (long[] row : H) {
+            s = (s << 1) | kernel.parity(row, r);
+        }
+        return s;
+    }
+
     /**
      * Finds the coset leaders for each syndrome without a maximum weight constraint.
      *
      * @param H parity-check matrix
-     * @return map of coset leaders
+     * @return table of coset leaders indexed by syndrome
      */
-    public Map<String, CosetLeader> findCosetLeaders(int[][] H) {
-        int n = H[0].length; // Length of the codeword
-        int m = H.length; // Number of syndromes
+    public CosetLeaderTable findCosetLeaders(int[][] H) {
+        return findCosetLeaders(H, CosetLeaderBuilder.UNBOUNDED);
+    }
 
-        Map<String, CosetLeader> cosetLeadersMap = new LinkedHashMap<>();
-        initializeCosetLeaders(cosetLeadersMap, m, n);
+    /**
+     * Finds the coset leaders of all error patterns up to a correction radius; the other
+     * syndromes are left unassigned and decode as detected but uncorrectable.
+     *
+     * @param H parity-check matrix
+     * @param radius largest weight to correct, or {@link CosetLeaderBuilder#FROM_MINIMUM_DISTANCE}
+     * @return table of coset leaders indexed by syndrome
+     */
+    public CosetLeaderTable findCosetLeaders(int[][] H, int radius) {
+        long start = System.nanoTime();
+        CosetLeaderTable cosetLeaders = new CosetLeaderBuilder(H).build(radius);
+        Metrics.record(Metrics.Stage.COSET_LEADERS, start, 1);
 
         if (debug) {
             System.out.println("\n=== Finding All Optimal Coset Leaders ===");
             System.out.println("Syndrome | Error Pattern | Hamming Weight");
+            for (CosetLeader cosetLeader : cosetLeaders.getCosetLeaders()) {
+                System.out.println(Arrays.toString(cosetLeader.syndrome()) + " | "
+                        + Arrays.toString(cosetLeader.errorPattern()) + " | " + cosetLeader.weight());
+            }
+            System.out.println("Total coset leaders found: " + cosetLeaders.getAssignedCount());
         }
 
-        int weight = 0;
-        int unassignedSyndromes = cosetLeadersMap.size();
+        return cosetLeaders;
+    }
 
-        // Continue generating error patterns until all coset leaders are assigned with optimal weights
-        while (unassignedSyndromes > 0) {
-            List<int[]> errorPatterns = generateErrorPatterns(n, weight);
-            unassignedSyndromes -= updateCosetLeaders(cosetLeadersMap, H, errorPatterns, weight);
-            weight++;
-        }
+    /**
+     * Finds the coset leaders of a code over GF(q) up to a correction radius.
+     *
+     * @param H parity-check matrix
+     * @param systematic systematic form of the generator matrix
+     * @param radius largest weight to correct, {@link CosetLeaderBuilder#UNBOUNDED} or
+     *               {@link CosetLeaderBuilder#FROM_MINIMUM_DISTANCE}
+     * @return decoder holding the coset leaders
+     */
+    public FieldSyndromeDecoder findCosetLeaders(int[][] H, FieldMatrix.Systematic systematic, int radius) {
+        long start = System.nanoTime();
+        FieldSyndromeDecoder decoder = new FieldSyndromeDecoder(H, systematic, radius);
+        Metrics.record(Metrics.Stage.COSET_LEADERS, start, 1);
+        return decoder;
+    }
 
-        if (debug) {
-            System.out.println("Total coset leaders found: " + cosetLeadersMap.size());
+    /**
+     * Encodes a batch of messages bit-sliced: 64 messages share one long per message bit,
+     * so every 1 in G costs a single XOR for all of them.
+     *
+     * @param messages messages to encode, all of length k
+     * @param G generator matrix
+     * @return encoded messages
+     */
+    public int[][] encodeBatch(int[][] messages, int[][] G) {
+        int k = G.length;
+        int n = G[0].length;
+        int[][] codewords = new int[messages.length][];
+        for (int from = 0; from < messages.length; from += 64) {
+            int count = Math.min(64, messages.length - from);
+            unslice(encodeSlice(slice(messages, from, count, k), G, n), codewords, from, count);
         }
+        return codewords;
+    }
 
-        return cosetLeadersMap;
+    /**
+     * Encodes a batch of packed messages bit-sliced, like {@link #encodeBatch(int[][], int[][])}.
+     * Only the set bits of the messages are visited to slice them.
+     *
+     * @param messages packed messages of k bits, nothing set past bit k
+     * @param G generator matrix
+     * @return encoded messages
+     */
+    public int[][] encodeBatch(long[][] messages, int[][] G) {
+        int k = G.length;
+        int n = G[0].length;
+        int[][] codewords = new int[messages.length][];
+        for (int from = 0; from < messages.length; from += 64) {
+            int count = Math.min(64, messages.length - from);
+            unslice(encodeSlice(slice(messages, from, count, k), G, n), codewords, from, count);
+        }
+        return codewords;
     }
 
-    private void initializeCosetLeaders(Map<String, CosetLeader> cosetLeadersMap, int m, int n) {
-        int totalSyndromes = (int) Math.pow(2, m);
-        for (int i = 0; i < totalSyndromes; i++) {
-            int[] syndrome = new int[m];
-            for (int j = 0; j < m; j++) {
-                syndrome[j] = (i >> (m - 1 - j)) & 1;
+    private static long[] encodeSlice(long[] m, int[][] G, int n) {
+        long[] c = new long[n];
+        for (int j = 0; j < m.length; j++) {
+            int[] row = G[j];
+            for (int i = 0; i < n; i++) {
+                if (row[i] != 0) {
+                    c[i] ^= m[j];
+                }
             }
-            String syndromeStr = Arrays.toString(syndrome);
-            cosetLeadersMap.put(syndromeStr, new CosetLeader(syndrome, null, n + 1));
         }
+        return c;
     }
 
     /**
-     * Updates coset leaders map with new error patterns and returns the count of updated syndromes.
-     *
-     * @param cosetLeadersMap map of coset leaders
-     * @param H               parity-check matrix
-     * @param errorPatterns   list of error patterns of the current weight
-     * @param weight          current weight of error patterns
-     * @return count of updated syndromes
+     * Encodes a batch of messages over GF(q).
+     * @param messages messages to encode, all of length k
+     * @param G generator matrix over the field
+     * @param field field of the code
+     * @return encoded messages
      */
-    private int updateCosetLeaders(Map<String, CosetLeader> cosetLeadersMap, int[][] H, List<int[]> errorPatterns, int weight) {
-        int updatedCount = 0;
-        for (int[] errorPattern : errorPatterns) {
-            int[] syndrome = computeSyndrome(H, errorPattern);
-            String syndromeStr = Arrays.toString(syndrome);
-
-            CosetLeader existingLeader = cosetLeadersMap.get(syndromeStr);
-            if (existingLeader != null && weight < existingLeader.weight()) {
-                // Update the coset leader with the new error pattern if it has a lower weight
-                cosetLeadersMap.put(syndromeStr, new CosetLeader(syndrome, errorPattern, weight));
-                updatedCount++;
-                if (debug) {
-                    System.out.println(syndromeStr + " | " + Arrays.toString(errorPattern) + " | " + weight);
-                }
-            }
+    public int[][] encodeBatch(int[][] messages, int[][] G, GaloisField field) {
+        int[][] codewords = new int[messages.length][];
+        for (int i = 0; i < messages.length; i++) {
+            codewords[i] = encode(messages[i], G, field);
         }
-        return updatedCount;
+        return codewords;
     }
 
     /**
-     * Generates all error patterns of a given weight.
-     * @param n length of the error pattern
-     * @param w weight of the error pattern
-     * @return list of error patterns
+     * Computes the syndromes of a batch of received vectors bit-sliced, 64 at a time.
+     * @param H parity-check matrix
+     * @param received received vectors
+     * @return syndrome value of every vector
      */
-    private List<int[]> generateErrorPatterns(int n, int w) {
-        List<int[]> patterns = new ArrayList<>();
-        int[] pattern = new int[n];
-        int totalPatterns = (int) Math.pow(2, n);
-        for (int i = 0; i < totalPatterns; i++) {
-            if (Integer.bitCount(i) == w) {
+    public int[] computeSyndromes(int[][] H, int[][] received) {
+        int n = H[0].length;
+        int[] syndromes = new int[received.length];
+        for (int from = 0; from < received.length; from += 64) {
+            int count = Math.min(64, received.length - from);
+            long[] r = slice(received, from, count, n);
+            for (int[] row : H) {
+                long s = 0;
                 for (int j = 0; j < n; j++) {
-                    pattern[j] = (i >> j) & 1;
+                    if (row[j] != 0) {
+                        s ^= r[j];
+                    }
+                }
+                for (int b = 0; b < count; b++) {
+                    syndromes[from + b] = (syndromes[from + b] << 1) | (int) (s >>> b) & 1;
                 }
-                patterns.add(pattern.clone());
             }
         }
-        return patterns;
+        return syndromes;
     }
 
     /**
-     * Decodes a received vector using the parity-check matrix H and coset leaders.
-     * @param r received vector
+     * Decodes a batch of received vectors: syndromes are computed bit-sliced and every vector
+     * is then corrected from the coset leader table with the chosen strategy.
+     *
+     * @param received received vectors
      * @param H parity-check matrix
-     * @param cosetLeadersMap map of coset leaders
-     * @return decoded vector
+     * @param decoder decoder bound to H
+     * @param strategy decoding strategy
+     * @return decoded vectors
      */
-    public int[] decodeStepByStep(int[] r, int[][] H, Map<String, CosetLeader> cosetLeadersMap) {
-        int n = r.length;
-        int i = 0;
-        int[] rCopy = Arrays.copyOf(r, n);
-
-        while (true) {
-            int[] syndrome = computeSyndrome(H, rCopy);
-            String syndromeStr = Arrays.toString(syndrome);
-            CosetLeader cosetLeader = cosetLeadersMap.get(syndromeStr);
-            int w = (cosetLeader != null) ? cosetLeader.weight() : n + 1;
-
-            if (w == 0) {
-                if (debug) {
-                    System.out.println("Corrected codeword: " + Arrays.toString(rCopy));
-                }
-                return rCopy;
-            }
+    public int[][] decodeBatch(int[][] received, int[][] H, SyndromeDecoder decoder, DecodingStrategy strategy) {
+        int[] syndromes = computeSyndromes(H, received);
+        int[][] decoded = new int[received.length][];
+        for (int i = 0; i < received.length; i++) {
+            decoded[i] = decoder.decode(received[i], syndromes[i], strategy);
+        }
+        return decoded;
+    }
 
-            if (i >= n) {
-                System.out.println("Error: Cannot decode the received vector.");
-                return rCopy;
+    /**
+     * Transposes up to 64 vectors into lanes: bit b of lane j is element j of vector from + b.
+     */
+    private static long[] slice(int[][] vectors, int from, int count, int length) {
+        long[] lanes = new long[length];
+        for (int b = 0; b < count; b++) {
+            int[] vector = vectors[from + b];
+            for (int j = 0; j < length; j++) {
+                lanes[j] |= (long) (vector[j] & 1) << b;
             }
+        }
+        return lanes;
+    }
 
-            // Flip bit i
-            rCopy[i] ^= 1;
-
-            // Compute new syndrome and coset leader weight
-            int[] syndromeNew = computeSyndrome(H, rCopy);
-            String syndromeNewStr = Arrays.toString(syndromeNew);
-            CosetLeader cosetLeaderNew = cosetLeadersMap.get(syndromeNewStr);
-            int wNew = (cosetLeaderNew != null) ? cosetLeaderNew.weight() : n + 1;
-
-            // If the new weight is less than the previous weight, keep the bit flipped
-            if (wNew < w) {
-                if (debug) {
-                    System.out.printf("Flipped bit %d, new coset leader weight %d < %d%n", i + 1, wNew, w);
+    private static long[] slice(long[][] vectors, int from, int count, int length) {
+        long[] lanes = new long[length];
+        for (int b = 0; b < count; b++) {
+            long[] vector = vectors[from + b];
+            for (int w = 0; w < vector.length; w++) {
+                for (long word = vector[w]; word != 0; word &= word - 1) {
+                    lanes[(w << 6) + Long.numberOfTrailingZeros(word)] |= 1L << b;
                 }
-            } else {
-                rCopy[i] ^= 1;
             }
-            i++;
+        }
+        return lanes;
+    }
+
+    private static void unslice(long[] lanes, int[][] vectors, int from, int count) {
+        for (int b = 0; b < count; b++) {
+            int[] vector = new int[lanes.length];
+            for (int j = 0; j < lanes.length; j++) {
+                vector[j] = (int) (lanes[j] >>> b) & 1;
+            }
+            vectors[from + b] = vector;
         }
     }
 
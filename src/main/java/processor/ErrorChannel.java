@@ -0,0 +1,108 @@
+package processor;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Memoryless channel that corrupts every symbol independently with probability pe.
+ * Instead of one random draw per symbol, the number of correct symbols before the next error
+ * is drawn from the geometric distribution, so the draws scale with the number of errors.
+ * <p>
+ * Every thread draws from its own SplittableRandom split off a common root, so there is no
+ * shared state between threads. With a seed, a single-threaded run is reproducible. Callers that
+ * send blocks from several threads take a generator per block from {@link #random(long)}
+ * instead, which depends only on the seed and the block number.
+ */
+public class ErrorChannel {
+    private final double pe;
+    private final int q;
+    private final SplittableRandom root;
+    private final long seed;
+    private final ThreadLocal<SplittableRandom> random = ThreadLocal.withInitial(this::split);
+
+    public ErrorChannel(double pe, int q) {
+        this(pe, q, new SplittableRandom());
+    }
+
+    public ErrorChannel(double pe, int q, long seed) {
+        this(pe, q, new SplittableRandom(seed));
+    }
+
+    private ErrorChannel(double pe, int q, SplittableRandom root) {
+        if (q < 2) {
+            throw new IllegalArgumentException("Invalid value for q: " + q);
+        }
+        if (!(pe >= 0 && pe <= 1)) {
+            throw new IllegalArgumentException("Invalid probability of error: " + pe);
+        }
+        this.pe = pe;
+        this.q = q;
+        this.root = root;
+        this.seed = root.split().nextLong();
+    }
+
+    private synchronized SplittableRandom split() {
+        return root.split();
+    }
+
+    /**
+     * Sends a codeword through the channel.
+     * @param c codeword
+     * @return received vector
+     */
+    public int[] transmit(int[] c) {
+        return transmit(c, pe, q, random.get());
+    }
+
+    /**
+     * Sends a codeword through the channel using the given generator.
+     * @param c codeword
+     * @param random generator from {@link #random(long)}
+     * @return received vector
+     */
+    public int[] transmit(int[] c, SplittableRandom random) {
+        return transmit(c, pe, q, random);
+    }
+
+    /**
+     * @param block number of the block in its stream
+     * @return generator for the block, the same for the same seed and block on any thread
+     */
+    public SplittableRandom random(long block) {
+        return new SplittableRandom(new SplittableRandom(seed ^ block * 0x9E3779B97F4A7C15L).nextLong());
+    }
+
+    /**
+     * Corrupts a copy of c at geometrically spaced positions. A symbol in error is replaced
+     * by one of the other q - 1 symbols, chosen uniformly.
+     *
+     * @param c codeword
+     * @param pe probability of error per symbol
+     * @param q number of symbols in the alphabet
+     * @param random source of randomness
+     * @return received vector
+     */
+    static int[] transmit(int[] c, double pe, int q, SplittableRandom random) {
+        int[] r = Arrays.copyOf(c, c.length);
+        if (pe <= 0) {
+            return r;
+        }
+        double logNoError = Math.log1p(-pe);
+        for (long i = skip(logNoError, random); i < r.length; i += 1 + skip(logNoError, random)) {
+            int position = (int) i;
+            r[position] = q == 2 ? r[position] ^ 1 : (r[position] + 1 + random.nextInt(q - 1)) % q;
+        }
+        return r;
+    }
+
+    /**
+     * Number of correct symbols before the next error: floor(ln U / ln(1 - pe)) for U in (0, 1].
+     */
+    private static long skip(double logNoError, SplittableRandom random) {
+        if (logNoError == Double.NEGATIVE_INFINITY) {
+            return 0;
+        }
+        double gap = Math.floor(Math.log(1.0 - random.nextDouble()) / logNoError);
+        return gap >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (long) gap;
+    }
+}
@@ -0,0 +1,181 @@
+package processor;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Dense matrix over GF(q), the q-ary counterpart of {@link BitMatrix}.
+ */
+public class FieldMatrix {
+    @Getter
+    private final GaloisField field;
+    @Getter
+    private final int rows;
+    @Getter
+    private final int columns;
+    private final int[][] data;
+
+    public FieldMatrix(GaloisField field, int rows, int columns) {
+        this.field = field;
+        this.rows = rows;
+        this.columns = columns;
+        this.data = new int[rows][columns];
+    }
+
+    public static FieldMatrix of(int[][] matrix, GaloisField field) {
+        FieldMatrix fieldMatrix = new FieldMatrix(field, matrix.length, matrix[0].length);
+        for (int i = 0; i < matrix.length; i++) {
+            for (int j = 0; j < matrix[0].length; j++) {
+                if (matrix[i][j] < 0 || matrix[i][j] >= field.getSize()) {
+                    throw new IllegalArgumentException("Symbol " + matrix[i][j] + " is not in GF(" + field.getSize() + ")");
+                }
+                fieldMatrix.data[i][j] = matrix[i][j];
+            }
+        }
+        return fieldMatrix;
+    }
+
+    public int[][] toArray() {
+        int[][] matrix = new int[rows][];
+        for (int i = 0; i < rows; i++) {
+            matrix[i] = data[i].clone();
+        }
+        return matrix;
+    }
+
+    public int get(int row, int column) {
+        return data[row][column];
+    }
+
+    /**
+     * Multiplies a row vector by this matrix into a caller-provided result.
+     * @param vector row vector of length rows
+     * @param result receives the product, length columns
+     */
+    public void multiply(int[] vector, int[] result) {
+        Arrays.fill(result, 0);
+        for (int i = 0; i < rows; i++) {
+            field.addScaled(result, data[i], vector[i]);
+        }
+    }
+
+    /**
+     * Brings a full-rank k x n generator matrix to systematic form [I_k | P] up to a
+     * permutation of the columns, by Gauss-Jordan elimination of [G | I_k].
+     *
+     * @return systematic form with its column permutation
+     */
+    public Systematic toSystematic() {
+        int[][] augmented = new int[rows][columns + rows];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(data[i], 0, augmented[i], 0, columns);
+            augmented[i][columns + i] = 1;
+        }
+
+        int[] pivots = new int[rows];
+        int rank = 0;
+        for (int column = 0; column < columns && rank < rows; column++) {
+            int pivot = rank;
+            while (pivot < rows && augmented[pivot][column] == 0) {
+                pivot++;
+            }
+            if (pivot == rows) {
+                continue;
+            }
+            int[] pivotRow = augmented[pivot];
+            augmented[pivot] = augmented[rank];
+            augmented[rank] = pivotRow;
+
+            int inverse = field.inverse(pivotRow[column]);
+            for (int j = 0; j < pivotRow.length; j++) {
+                pivotRow[j] = field.multiply(pivotRow[j], inverse);
+            }
+            for (int i = 0; i < rows; i++) {
+                if (i != rank && augmented[i][column] != 0) {
+                    field.addScaled(augmented[i], pivotRow, field.negate(augmented[i][column]));
+                }
+            }
+            pivots[rank++] = column;
+        }
+        if (rank < rows) {
+            throw new IllegalArgumentException("Generator matrix is not full rank: rank " + rank + " < k = " + rows);
+        }
+
+        int[] permutation = new int[columns];
+        boolean[] isPivot = new boolean[columns];
+        for (int p = 0; p < rows; p++) {
+            permutation[p] = pivots[p];
+            isPivot[pivots[p]] = true;
+        }
+        for (int column = 0, next = rows; column < columns; column++) {
+            if (!isPivot[column]) {
+                permutation[next++] = column;
+            }
+        }
+
+        FieldMatrix generator = new FieldMatrix(field, rows, columns);
+        FieldMatrix transform = new FieldMatrix(field, rows, rows);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                generator.data[i][j] = augmented[i][permutation[j]];
+            }
+            System.arraycopy(augmented[i], columns, transform.data[i], 0, rows);
+        }
+        return new Systematic(generator, permutation, transform);
+    }
+
+    /**
+     * Systematic form of a generator matrix G over GF(q).
+     *
+     * @param generator   [I_k | P]; its column j is column permutation[j] of G
+     * @param permutation column permutation, the first k entries are the information set
+     * @param transform   row operations T with T * G restricted to the information set = I_k
+     */
+    public record Systematic(FieldMatrix generator, int[] permutation, FieldMatrix transform) {
+        /**
+         * H = [-P^T | I_(n-k)] with its columns moved back to the positions of G.
+         * @return parity-check matrix of the code generated by G
+         */
+        public FieldMatrix parityCheckMatrix() {
+            GaloisField field = generator.field;
+            int k = generator.rows;
+            int n = generator.columns;
+            FieldMatrix H = new FieldMatrix(field, n - k, n);
+            for (int i = 0; i < k; i++) {
+                for (int j = k; j < n; j++) {
+                    H.data[j - k][permutation[i]] = field.negate(generator.data[i][j]);
+                }
+            }
+            for (int i = 0; i < n - k; i++) {
+                H.data[i][permutation[k + i]] = 1;
+            }
+            return H;
+        }
+
+        /**
+         * Recovers the message of a codeword: the information set gives m * T^-1, so m is
+         * that vector multiplied by T.
+         *
+         * @param codeword codeword of the code generated by G
+         * @return message of length k
+         */
+        public int[] message(int[] codeword) {
+            GaloisField field = generator.field;
+            int k = generator.rows;
+            int[] message = new int[k];
+            for (int p = 0; p < k; p++) {
+                field.addScaled(message, transform.data[p], codeword[permutation[p]]);
+            }
+            return message;
+        }
+
+        /**
+         * @return codeword positions of the information set, in the order {@link #message(int[])}
+         * reads them
+         */
+        public int[] informationSet() {
+            return Arrays.copyOf(permutation, generator.rows);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package processor;
+
+import lombok.Getter;
+import model.CosetLeader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Syndrome decoder for a linear code over GF(q).
+ * <p>
+ * Coset leaders are found by visiting error patterns in order of increasing weight: every
+ * support of w positions in colexicographic order and, for each support, every assignment of
+ * non-zero symbols. A syndrome H e^T is indexed as a base-q number whose most significant digit
+ * is row 0 of H, like the bit order of the binary syndromes. The syndrome of a pattern is
+ * derived from the one of the pattern that differs from it only in its lowest positions.
+ * <p>
+ * A leader is stored as its non-zero positions and symbols, appended to shared arrays as the
+ * layers are filled, so the table takes the summed weight of its leaders instead of n symbols
+ * per syndrome.
+ */
+public class FieldSyndromeDecoder implements Decoder {
+    private static final int MAX_SYNDROMES = 1 << 24;
+
+    private final GaloisField field;
+    private final FieldMatrix.Systematic systematic;
+    @Getter
+    private final int n;
+    @Getter
+    private final int syndromeLength;
+    private final int[][] columns;
+    private final int[] weights;
+    /**
+     * Leader of syndrome s: positions[offsets[s] + i] and values[offsets[s] + i] for i &lt; weights[s].
+     */
+    private final int[] offsets;
+    private int[] positions = new int[1 << 10];
+    private int[] values = new int[1 << 10];
+    private int used;
+    private final ThreadLocal<int[]> scratch;
+    @Getter
+    private int assignedCount;
+    /**
+     * Weight up to which leaders were searched, see {@link CosetLeaderTable#getRadius()}.
+     */
+    @Getter
+    private int radius;
+
+    /**
+     * Builds the coset leaders of the code up to a correction radius.
+     *
+     * @param H          parity-check matrix over GF(q)
+     * @param systematic systematic form of the generator matrix, used to recover messages
+     * @param radius     largest weight to correct, {@link CosetLeaderBuilder#UNBOUNDED} or
+     *                   {@link CosetLeaderBuilder#FROM_MINIMUM_DISTANCE}
+     */
+    public FieldSyndromeDecoder(int[][] H, FieldMatrix.Systematic systematic, int radius) {
+        this.field = systematic.generator().getField();
+        this.systematic = systematic;
+        this.n = H[0].length;
+        this.syndromeLength = H.length;
+
+        long size = 1;
+        for (int i = 0; i < syndromeLength; i++) {
+            size *= field.getSize();
+            if (size > MAX_SYNDROMES) {
+                throw new IllegalArgumentException("Too many syndromes for a coset leader table: q^(n - k) > " + MAX_SYNDROMES);
+            }
+        }
+        this.columns = new int[n][syndromeLength];
+        for (int i = 0; i < syndromeLength; i++) {
+            for (int j = 0; j < n; j++) {
+                columns[j][i] = H[i][j];
+            }
+        }
+        this.weights = new int[(int) size];
+        this.offsets = new int[(int) size];
+        this.scratch = ThreadLocal.withInitial(() -> new int[syndromeLength]);
+        Arrays.fill(weights, n + 1);
+        build(radius);
+    }
+
+    private void build(int radius) {
+        boolean derive = radius == CosetLeaderBuilder.FROM_MINIMUM_DISTANCE;
+        int maxWeight = derive ? n : Math.min(radius, n);
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("Invalid correction radius: " + radius);
+        }
+
+        int reached = 0;
+        int weight = 0;
+        for (; weight <= maxWeight && assignedCount < weights.length; weight++) {
+            int layerStart = used;
+            if (fillLayer(weight, derive)) {
+                reached = weight;
+            } else if (derive) {
+                unassign(weight, layerStart);
+                break;
+            }
+        }
+        this.radius = derive ? reached : weight - 1;
+    }
+
+    /**
+     * Assigns the error patterns of one weight to the cosets without a leader.
+     * <p>
+     * partial[i] holds the syndrome of the pattern's positions i and above. Advancing the symbols
+     * like an odometer changes them up to some index, so only the partial syndromes up to that
+     * index are recomputed, each from the one above it; a new support recomputes all of them.
+     *
+     * @param weight weight of the error patterns
+     * @param stopOnCollision stop at the first pattern whose coset already has a leader
+     * @return whether every pattern of this weight got its own coset
+     */
+    private boolean fillLayer(int weight, boolean stopOnCollision) {
+        int q = field.getSize();
+        int[] support = new int[weight];
+        int[] symbols = new int[weight];
+        int[][] partial = new int[weight + 1][syndromeLength];
+        for (int i = 0; i < weight; i++) {
+            support[i] = i;
+        }
+        Arrays.fill(symbols, 1);
+        boolean unique = true;
+
+        while (true) {
+            int changed = weight - 1;
+            do {
+                for (int i = changed; i >= 0; i--) {
+                    System.arraycopy(partial[i + 1], 0, partial[i], 0, syndromeLength);
+                    field.addScaled(partial[i], columns[support[i]], symbols[i]);
+                }
+                int s = index(partial[0]);
+                if (weights[s] > n) {
+                    assign(s, support, symbols);
+                    if (++assignedCount == weights.length && !stopOnCollision) {
+                        return unique;
+                    }
+                } else {
+                    unique = false;
+                    if (stopOnCollision) {
+                        return false;
+                    }
+                }
+                changed = nextValues(symbols, q);
+            } while (changed >= 0);
+
+            // Next support in colex order
+            int j = 0;
+            while (j < weight - 1 && support[j] + 1 == support[j + 1]) {
+                j++;
+            }
+            if (j == weight || support[j] + 1 >= n) {
+                return unique;
+            }
+            support[j]++;
+            for (int i = 0; i < j; i++) {
+                support[i] = i;
+            }
+        }
+    }
+
+    /**
+     * Appends the pattern as the leader of the syndrome.
+     */
+    private void assign(int s, int[] support, int[] symbols) {
+        int weight = support.length;
+        if (used + weight > positions.length) {
+            int capacity = Math.max(used + weight, positions.length * 2);
+            positions = Arrays.copyOf(positions, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        System.arraycopy(support, 0, positions, used, weight);
+        System.arraycopy(symbols, 0, values, used, weight);
+        weights[s] = weight;
+        offsets[s] = used;
+        used += weight;
+    }
+
+    /**
+     * Advances the non-zero symbols of a pattern like an odometer.
+     * @return highest index that changed, or -1 after the last assignment, when all are 1 again
+     */
+    private static int nextValues(int[] values, int q) {
+        for (int i = 0; i < values.length; i++) {
+            if (++values[i] < q) {
+                return i;
+            }
+            values[i] = 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the leaders of the last layer filled, which start at layerStart.
+     */
+    private void unassign(int weight, int layerStart) {
+        for (int s = 0; s < weights.length; s++) {
+            if (weights[s] == weight) {
+                weights[s] = n + 1;
+                assignedCount--;
+            }
+        }
+        used = layerStart;
+    }
+
+    private int index(int[] syndrome) {
+        int s = 0;
+        for (int digit : syndrome) {
+            s = s * field.getSize() + digit;
+        }
+        return s;
+    }
+
+    /**
+     * @param r received vector
+     * @return syndrome index of r
+     */
+    public int syndrome(int[] r) {
+        int[] s = scratch.get();
+        Arrays.fill(s, 0);
+        for (int j = 0; j < n; j++) {
+            field.addScaled(s, columns[j], r[j]);
+        }
+        return index(s);
+    }
+
+    public boolean isCorrectable(int s) {
+        return weights[s] <= n;
+    }
+
+    @Override
+    public int[] decode(int[] r) {
+        return decode(r, syndrome(r));
+    }
+
+    /**
+     * Decodes a received vector by subtracting the coset leader of its syndrome.
+     * @param r received vector
+     * @param s syndrome index of r
+     * @return decoded vector
+     */
+    public int[] decode(int[] r, int s) {
+        int[] c = Arrays.copyOf(r, n);
+        if (!isCorrectable(s)) {
+            Trace.event(Trace.Level.ERROR, "Cannot decode the received vector", r);
+            return c;
+        }
+        for (int i = offsets[s]; i < offsets[s] + weights[s]; i++) {
+            c[positions[i]] = field.subtract(c[positions[i]], values[i]);
+        }
+        return c;
+    }
+
+    @Override
+    public int[] message(int[] codeword) {
+        return systematic.message(codeword);
+    }
+
+    @Override
+    public int[] informationSet() {
+        return systematic.informationSet();
+    }
+
+    /**
+     * Expands the table into coset leader records, e.g. for display.
+     * @return coset leaders ordered by syndrome
+     */
+    public List<CosetLeader> getCosetLeaders() {
+        List<CosetLeader> cosetLeaders = new ArrayList<>(weights.length);
+        for (int s = 0; s < weights.length; s++) {
+            int[] syndrome = new int[syndromeLength];
+            for (int i = syndromeLength - 1, rest = s; i >= 0; i--, rest /= field.getSize()) {
+                syndrome[i] = rest % field.getSize();
+            }
+            int[] errorPattern = null;
+            if (isCorrectable(s)) {
+                errorPattern = new int[n];
+                for (int i = offsets[s]; i < offsets[s] + weights[s]; i++) {
+                    errorPattern[positions[i]] = values[i];
+                }
+            }
+            cosetLeaders.add(new CosetLeader(syndrome, errorPattern, weights[s]));
+        }
+        return cosetLeaders;
+    }
+}
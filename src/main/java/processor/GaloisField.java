@@ -0,0 +1,259 @@
+package processor;
+
+import lombok.Getter;
+
+/**
+ * Arithmetic in GF(q) for q = p^m through log/antilog tables built from a primitive polynomial.
+ * Elements are the integers 0..q - 1 read as polynomials over GF(p) with the base-p digits as
+ * coefficients; alpha = x generates the multiplicative group.
+ * <p>
+ * Addition is XOR in characteristic 2 and addition mod p in a prime field. Other fields add
+ * through Zech logarithms: a + b = a (1 + b / a), with log(1 + alpha^i) tabulated.
+ */
+public class GaloisField {
+    /**
+     * Primitive polynomials over GF(2) for m = 1..16, bit i being the coefficient of x^i.
+     */
+    private static final int[] BINARY_PRIMITIVE_POLYNOMIALS = {
+            0, 0x3, 0x7, 0xB, 0x13, 0x25, 0x43, 0x89, 0x11D, 0x211, 0x409, 0x805, 0x1053, 0x201B, 0x4443, 0x8003, 0x1100B
+    };
+    private static final int MAX_SIZE = 1 << 16;
+
+    @Getter
+    private final int characteristic;
+    @Getter
+    private final int m;
+    @Getter
+    private final int size;
+    private final int[] exp;
+    private final int[] log;
+    /**
+     * zech[i] = log(1 + alpha^i), or -1 where 1 + alpha^i = 0. Only for p &gt; 2 and m &gt; 1.
+     */
+    private final int[] zech;
+
+    /**
+     * @param m degree of GF(2^m)
+     */
+    public GaloisField(int m) {
+        this(2, m);
+    }
+
+    /**
+     * @param p prime characteristic
+     * @param m degree of the extension
+     */
+    public GaloisField(int p, int m) {
+        if (!isPrime(p) || m < 1 || Math.pow(p, m) > MAX_SIZE) {
+            throw new IllegalArgumentException("Unsupported field GF(" + p + "^" + m + ")");
+        }
+        this.characteristic = p;
+        this.m = m;
+        this.size = (int) Math.round(Math.pow(p, m));
+        this.exp = new int[2 * (size - 1)];
+        this.log = new int[size];
+
+        int polynomial = p == 2 ? BINARY_PRIMITIVE_POLYNOMIALS[m] : findPrimitivePolynomial();
+        int element = 1;
+        for (int i = 0; i < size - 1; i++) {
+            exp[i] = element;
+            exp[i + size - 1] = element;
+            log[element] = i;
+            element = p == 2 ? timesAlphaBinary(element, polynomial) : timesAlpha(element, polynomial);
+        }
+
+        if (p > 2 && m > 1) {
+            zech = new int[size - 1];
+            for (int i = 0; i < size - 1; i++) {
+                int onePlus = plusOne(exp[i]);
+                zech[i] = onePlus == 0 ? -1 : log[onePlus];
+            }
+        } else {
+            zech = null;
+        }
+    }
+
+    /**
+     * @param q number of elements, a prime power
+     * @return GF(q)
+     */
+    public static GaloisField of(int q) {
+        for (int p = 2; p <= q; p++) {
+            if (q % p == 0) {
+                int m = 0;
+                int rest = q;
+                while (rest % p == 0) {
+                    rest /= p;
+                    m++;
+                }
+                if (rest != 1) {
+                    break;
+                }
+                return new GaloisField(p, m);
+            }
+        }
+        throw new IllegalArgumentException("q must be a prime power, got " + q);
+    }
+
+    private static boolean isPrime(int p) {
+        if (p < 2) {
+            return false;
+        }
+        for (int d = 2; d * d <= p; d++) {
+            if (p % d == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int timesAlphaBinary(int element, int polynomial) {
+        element <<= 1;
+        return (element & size) != 0 ? element ^ polynomial : element;
+    }
+
+    /**
+     * Multiplies by x modulo x^m + f(x), where f holds the low coefficients as base-p digits.
+     */
+    private int timesAlpha(int element, int f) {
+        int p = characteristic;
+        int top = element / (size / p);
+        int shifted = (element % (size / p)) * p;
+        // x^m = -f(x)
+        int result = 0;
+        for (int i = 0, weight = 1; i < m; i++, weight *= p) {
+            int digit = shifted / weight % p;
+            int fDigit = f / weight % p;
+            result += Math.floorMod(digit - top * fDigit, p) * weight;
+        }
+        return result;
+    }
+
+    private int plusOne(int element) {
+        int lowest = element % characteristic;
+        return element - lowest + (lowest + 1) % characteristic;
+    }
+
+    /**
+     * Finds x^m + f(x) for which x has order p^m - 1.
+     * @return low coefficients f as base-p digits
+     */
+    private int findPrimitivePolynomial() {
+        for (int f = 1; f < size; f++) {
+            if (f % characteristic == 0) {
+                continue;
+            }
+            int element = 1;
+            int order = 0;
+            do {
+                element = timesAlpha(element, f);
+                order++;
+            } while (element != 1 && order < size);
+            if (order == size - 1) {
+                return f;
+            }
+        }
+        throw new IllegalStateException("No primitive polynomial for GF(" + size + ")");
+    }
+
+    /**
+     * @param i exponent, any integer
+     * @return alpha^i
+     */
+    public int exp(int i) {
+        return exp[Math.floorMod(i, size - 1)];
+    }
+
+    /**
+     * @param a non-zero element
+     * @return i such that alpha^i = a
+     */
+    public int log(int a) {
+        if (a == 0) {
+            throw new ArithmeticException("log(0)");
+        }
+        return log[a];
+    }
+
+    public int add(int a, int b) {
+        if (characteristic == 2) {
+            return a ^ b;
+        }
+        if (zech == null) {
+            int sum = a + b;
+            return sum >= size ? sum - size : sum;
+        }
+        if (a == 0) {
+            return b;
+        }
+        if (b == 0) {
+            return a;
+        }
+        int z = zech[Math.floorMod(log[b] - log[a], size - 1)];
+        return z < 0 ? 0 : exp[log[a] + z];
+    }
+
+    public int negate(int a) {
+        if (characteristic == 2 || a == 0) {
+            return a;
+        }
+        if (zech == null) {
+            return size - a;
+        }
+        // -1 = alpha^((q - 1) / 2) in odd characteristic
+        return exp[log[a] + (size - 1) / 2];
+    }
+
+    public int subtract(int a, int b) {
+        return add(a, negate(b));
+    }
+
+    public int multiply(int a, int b) {
+        if (a == 0 || b == 0) {
+            return 0;
+        }
+        return exp[log[a] + log[b]];
+    }
+
+    public int divide(int a, int b) {
+        if (b == 0) {
+            throw new ArithmeticException("Division by zero in GF(" + size + ")");
+        }
+        if (a == 0) {
+            return 0;
+        }
+        return exp[log[a] - log[b] + size - 1];
+    }
+
+    public int inverse(int a) {
+        return divide(1, a);
+    }
+
+    /**
+     * accumulator += scale * vector, in place.
+     * @param accumulator vector to add to
+     * @param vector vector to scale, at least as long as the accumulator
+     * @param scale field element
+     */
+    public void addScaled(int[] accumulator, int[] vector, int scale) {
+        if (scale == 0) {
+            return;
+        }
+        for (int i = 0; i < accumulator.length; i++) {
+            accumulator[i] = add(accumulator[i], multiply(scale, vector[i]));
+        }
+    }
+
+    /**
+     * @param a first vector
+     * @param b second vector
+     * @return sum of a[i] * b[i]
+     */
+    public int dot(int[] a, int[] b) {
+        int sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum = add(sum, multiply(a[i], b[i]));
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,97 @@
+package processor;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Binary Hamming code of length 2^r - 1 in systematic form [I_k | P].
+ * A single error is located by looking its syndrome up among the columns of H.
+ */
+public class HammingCode implements Decoder {
+    @Getter
+    private final int n;
+    @Getter
+    private final int k;
+    private final int r;
+    private final int[] columnSyndromes;
+    private final int[] positionBySyndrome;
+
+    /**
+     * @param r number of parity bits
+     */
+    public HammingCode(int r) {
+        if (r < 2 || r > 20) {
+            throw new IllegalArgumentException("Hamming code needs 2 <= r <= 20, got " + r);
+        }
+        this.r = r;
+        this.n = (1 << r) - 1;
+        this.k = n - r;
+
+        // Message positions get the syndromes of weight >= 2, parity position k + i gets bit i
+        columnSyndromes = new int[n];
+        int position = 0;
+        for (int s = 1; s <= n; s++) {
+            if (Integer.bitCount(s) >= 2) {
+                columnSyndromes[position++] = s;
+            }
+        }
+        for (int i = 0; i < r; i++) {
+            columnSyndromes[k + i] = 1 << (r - 1 - i);
+        }
+
+        positionBySyndrome = new int[n + 1];
+        Arrays.fill(positionBySyndrome, -1);
+        for (int j = 0; j < n; j++) {
+            positionBySyndrome[columnSyndromes[j]] = j;
+        }
+    }
+
+    public int[][] getParityCheckMatrix() {
+        int[][] H = new int[r][n];
+        for (int j = 0; j < n; j++) {
+            for (int i = 0; i < r; i++) {
+                H[i][j] = (columnSyndromes[j] >> (r - 1 - i)) & 1;
+            }
+        }
+        return H;
+    }
+
+    public int[][] getGenerator() {
+        int[][] G = new int[k][n];
+        for (int i = 0; i < k; i++) {
+            G[i][i] = 1;
+            for (int j = 0; j < r; j++) {
+                G[i][k + j] = (columnSyndromes[i] >> (r - 1 - j)) & 1;
+            }
+        }
+        return G;
+    }
+
+    @Override
+    public int[] decode(int[] received) {
+        int[] c = Arrays.copyOf(received, n);
+        int s = 0;
+        for (int j = 0; j < n; j++) {
+            if (c[j] != 0) {
+                s ^= columnSyndromes[j];
+            }
+        }
+        if (s != 0) {
+            c[positionBySyndrome[s]] ^= 1;
+        }
+        return c;
+    }
+
+    @Override
+    public int[] message(int[] codeword) {
+        return Arrays.copyOf(codeword, k);
+    }
+
+    @Override
+    public int[] informationSet() {
+        int[] positions = new int[k];
+        Arrays.setAll(positions, i -> i);
+        return positions;
+    }
+}
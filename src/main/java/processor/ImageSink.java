@@ -0,0 +1,66 @@
+package processor;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Rebuilds an RGB image pixel by pixel as the output arrives, in the layout
+ * {@link ImageSource} reads: 24 bits per pixel with the red, green and blue bits interleaved from
+ * the most significant down. Pixels are stored straight into the BGR bytes of the raster, and
+ * the image is written as PNG when the sink is closed.
+ */
+public class ImageSink implements OutputSink {
+    private final BufferedImage image;
+    private final byte[] data;
+    private final String outputPath;
+    private final int pixels;
+    private int pixel;
+    private int rgb;
+    private int bits;
+
+    /**
+     * @param width      image width
+     * @param height     image height
+     * @param outputPath PNG file to write
+     */
+    public ImageSink(int width, int height, String outputPath) {
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        this.data = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        this.outputPath = outputPath;
+        this.pixels = width * height;
+    }
+
+    @Override
+    public void accept(int[] block, int length) {
+        for (int i = 0; i < length && pixel < pixels; i++) {
+            // bit 3j of a pixel is bit 7 - j of red, 3j + 1 of green and 3j + 2 of blue
+            int channel = bits % 3;
+            int position = 7 - bits / 3;
+            rgb |= (block[i] != 0 ? 1 : 0) << ((2 - channel) * 8 + position);
+            if (++bits == 24) {
+                data[3 * pixel] = (byte) rgb;
+                data[3 * pixel + 1] = (byte) (rgb >> 8);
+                data[3 * pixel + 2] = (byte) (rgb >> 16);
+                pixel++;
+                rgb = 0;
+                bits = 0;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        File file = new File(outputPath);
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Failed to create directory: " + directory);
+        }
+        if (!ImageIO.write(image, "png", file)) {
+            throw new IOException("No PNG writer available");
+        }
+        System.out.println("Image written successfully to " + outputPath);
+    }
+}
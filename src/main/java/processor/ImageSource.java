@@ -0,0 +1,193 @@
+package processor;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * The pixels of an RGB image as bits: 24 per pixel, row by row, with the red, green and blue
+ * bits interleaved from the most significant down. Only the decoded image is kept; its bits are
+ * packed a band of rows at a time when they are read, straight from the raster's
+ * {@link DataBuffer} when the layout is plain 8-bit RGB, otherwise a row at a time through
+ * {@link BufferedImage#getRGB(int, int, int, int, int[], int, int)}.
+ */
+@Getter
+public class ImageSource implements InputSource {
+    public static final int BITS_PER_PIXEL = 24;
+    private static final int TILE_BITS = 1 << 20;
+
+    /**
+     * SPREAD[v] has bit 3j set where v has bit 7 - j set.
+     */
+    private static final int[] SPREAD = new int[256];
+
+    static {
+        for (int v = 0; v < 256; v++) {
+            for (int j = 0; j < 8; j++) {
+                SPREAD[v] |= ((v >> (7 - j)) & 1) << (3 * j);
+            }
+        }
+    }
+
+    private final int width;
+    private final int height;
+    /**
+     * Rows per tile; the last tile may have fewer.
+     */
+    private final int tileRows;
+    private final int tileCount;
+
+    @Getter(AccessLevel.NONE)
+    private final BufferedImage image;
+    @Getter(AccessLevel.NONE)
+    private final PixelReader reader;
+    @Getter(AccessLevel.NONE)
+    private int cachedIndex = -1;
+    @Getter(AccessLevel.NONE)
+    private long[] cachedTile;
+
+    public ImageSource(BufferedImage image) {
+        this.image = image;
+        this.width = image.getWidth();
+        this.height = image.getHeight();
+        this.tileRows = Math.max(1, TILE_BITS / (width * BITS_PER_PIXEL));
+        this.tileCount = (height + tileRows - 1) / tileRows;
+        this.reader = pixelReader(image);
+    }
+
+    @Override
+    public long length() {
+        return (long) width * height * BITS_PER_PIXEL;
+    }
+
+    @Override
+    public void read(long position, int[] target, int count) {
+        long tileLength = (long) tileRows * width * BITS_PER_PIXEL;
+        for (int i = 0; i < count; ) {
+            int index = (int) (position / tileLength);
+            if (index != cachedIndex) {
+                cachedTile = tile(index);
+                cachedIndex = index;
+            }
+            int offset = (int) (position - index * tileLength);
+            int available = (int) Math.min(count - i, Math.min(tileLength, length() - index * tileLength) - offset);
+            for (int j = 0; j < available; j++, offset++) {
+                target[i + j] = (int) (cachedTile[offset >>> 6] >>> offset) & 1;
+            }
+            i += available;
+            position += available;
+        }
+    }
+
+    /**
+     * Packs the bits of one band of rows; bit i of the band is bit i % 64 of word i / 64.
+     *
+     * @param index tile index, 0 to tileCount - 1
+     * @return packed bits of rows index * tileRows up to the next tile
+     */
+    public long[] tile(int index) {
+        int firstRow = index * tileRows;
+        int rows = Math.min(tileRows, height - firstRow);
+        long[] words = new long[(int) (((long) rows * width * BITS_PER_PIXEL + 63) >>> 6)];
+        int[] row = new int[width];
+        int bit = 0;
+        for (int y = firstRow; y < firstRow + rows; y++) {
+            reader.readRow(y, row);
+            for (int x = 0; x < width; x++, bit += BITS_PER_PIXEL) {
+                long bits = SPREAD[row[x] >>> 16 & 0xFF] | SPREAD[row[x] >>> 8 & 0xFF] << 1 | SPREAD[row[x] & 0xFF] << 2;
+                int shift = bit & 63;
+                words[bit >>> 6] |= bits << shift;
+                if (shift > 64 - BITS_PER_PIXEL) {
+                    words[(bit >>> 6) + 1] |= bits >>> (64 - shift);
+                }
+            }
+        }
+        return words;
+    }
+
+    /**
+     * @return packed tiles in order, each produced when the stream reaches it
+     */
+    public Stream<long[]> tiles() {
+        return IntStream.range(0, tileCount).mapToObj(this::tile);
+    }
+
+    /**
+     * @param outputPath PNG file to write
+     * @return sink that rebuilds an image of this size
+     */
+    public ImageSink sink(String outputPath) {
+        return new ImageSink(width, height, outputPath);
+    }
+
+    private interface PixelReader {
+        /**
+         * @param y   row
+         * @param rgb receives 0xRRGGBB of each pixel of the row
+         */
+        void readRow(int y, int[] rgb);
+    }
+
+    private static PixelReader pixelReader(BufferedImage image) {
+        Raster raster = image.getRaster();
+        ColorModel colorModel = image.getColorModel();
+        int translateX = raster.getSampleModelTranslateX();
+        int translateY = raster.getSampleModelTranslateY();
+        boolean sRGB = colorModel.getColorSpace().isCS_sRGB() && !colorModel.isAlphaPremultiplied();
+
+        if (sRGB && colorModel instanceof ComponentColorModel && colorModel.getNumColorComponents() == 3
+                && raster.getDataBuffer() instanceof DataBufferByte buffer && buffer.getNumBanks() == 1
+                && raster.getSampleModel() instanceof PixelInterleavedSampleModel sampleModel
+                && is8Bit(colorModel)) {
+            byte[] data = buffer.getData();
+            int pixelStride = sampleModel.getPixelStride();
+            int scanlineStride = sampleModel.getScanlineStride();
+            int[] offsets = sampleModel.getBandOffsets();
+            int red = offsets[0];
+            int green = offsets[1];
+            int blue = offsets[2];
+            return (y, rgb) -> {
+                int i = buffer.getOffset() + (y - translateY) * scanlineStride - translateX * pixelStride;
+                for (int x = 0; x < rgb.length; x++, i += pixelStride) {
+                    rgb[x] = (data[i + red] & 0xFF) << 16 | (data[i + green] & 0xFF) << 8 | data[i + blue] & 0xFF;
+                }
+            };
+        }
+        if (sRGB && colorModel instanceof DirectColorModel direct && direct.getRedMask() == 0xFF0000
+                && direct.getGreenMask() == 0xFF00 && direct.getBlueMask() == 0xFF
+                && raster.getDataBuffer() instanceof DataBufferInt buffer && buffer.getNumBanks() == 1
+                && raster.getSampleModel() instanceof SinglePixelPackedSampleModel sampleModel) {
+            int[] data = buffer.getData();
+            int scanlineStride = sampleModel.getScanlineStride();
+            return (y, rgb) -> {
+                int i = buffer.getOffset() + (y - translateY) * scanlineStride - translateX;
+                for (int x = 0; x < rgb.length; x++) {
+                    rgb[x] = data[i + x] & 0xFFFFFF;
+                }
+            };
+        }
+        return (y, rgb) -> image.getRGB(0, y, rgb.length, 1, rgb, 0, rgb.length);
+    }
+
+    private static boolean is8Bit(ColorModel colorModel) {
+        for (int size : colorModel.getComponentSize()) {
+            if (size != 8) {
+                return false;
+            }
+        }
+        return colorModel.getColorSpace().getType() == ColorSpace.TYPE_RGB;
+    }
+}
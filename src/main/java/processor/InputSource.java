@@ -0,0 +1,58 @@
+package processor;
+
+import java.util.Arrays;
+
+/**
+ * Symbols a session sends, read a block at a time so large input does not have to be held as
+ * one int per symbol. Reads come from one thread, mostly in increasing order.
+ */
+public interface InputSource {
+    /**
+     * @return number of symbols
+     */
+    long length();
+
+    /**
+     * Copies symbols [position, position + count) to the start of target.
+     *
+     * @param position first symbol to copy
+     * @param target   array to copy to
+     * @param count    number of symbols, at most length() - position
+     */
+    void read(long position, int[] target, int count);
+
+    /**
+     * Packs binary symbols [position, position + count) into target, symbol i at bit i & 63 of
+     * word i &gt;&gt;&gt; 6. The words holding the count bits are overwritten, so bits past count are 0.
+     *
+     * @param position first symbol to copy
+     * @param target   words to pack into, at least {@link Bits#words(int)} of count
+     * @param count    number of symbols, at most length() - position
+     */
+    default void read(long position, long[] target, int count) {
+        int[] symbols = new int[count];
+        read(position, symbols, count);
+        Arrays.fill(target, 0, Bits.words(count), 0);
+        for (int i = 0; i < count; i++) {
+            target[i >>> 6] |= (long) (symbols[i] & 1) << i;
+        }
+    }
+
+    /**
+     * @param symbols symbols held in memory
+     * @return source reading the array
+     */
+    static InputSource of(int[] symbols) {
+        return new InputSource() {
+            @Override
+            public long length() {
+                return symbols.length;
+            }
+
+            @Override
+            public void read(long position, int[] target, int count) {
+                System.arraycopy(symbols, (int) position, target, 0, count);
+            }
+        };
+    }
+}
@@ -0,0 +1,284 @@
+package processor;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Low-density parity-check code with a sparse H stored as adjacency lists.
+ * Edges are numbered row by row; every column keeps the list of its edges, so both decoders
+ * visit each edge a constant number of times per iteration.
+ */
+public class LdpcCode {
+    private static final int MAX_ITERATIONS = 50;
+    private static final float MIN_SUM_SCALE = 0.8f;
+
+    public enum Algorithm {
+        /**
+         * Gallager bit flipping: flip the bits in the most unsatisfied checks.
+         */
+        BIT_FLIPPING,
+        /**
+         * Normalized min-sum message passing on hard channel decisions.
+         */
+        MIN_SUM
+    }
+
+    @Getter
+    private final int n;
+    @Getter
+    private final int k;
+    private final int m;
+    private final int[] rowStart;
+    private final int[] edgeColumn;
+    private final int[] edgeRow;
+    private final int[] columnStart;
+    private final int[] columnEdges;
+    private final BitMatrix generator;
+    private final int[] informationSet;
+
+    /**
+     * Builds the adjacency lists of H and derives a generator matrix for its null space.
+     * @param H parity-check matrix, rows may be linearly dependent
+     */
+    public LdpcCode(BitMatrix H) {
+        this.n = H.getColumns();
+        this.m = H.getRows();
+
+        int edges = 0;
+        rowStart = new int[m + 1];
+        int[] columnDegree = new int[n];
+        for (int i = 0; i < m; i++) {
+            rowStart[i] = edges;
+            for (int j = 0; j < n; j++) {
+                if (H.get(i, j) != 0) {
+                    edges++;
+                    columnDegree[j]++;
+                }
+            }
+        }
+        rowStart[m] = edges;
+
+        edgeColumn = new int[edges];
+        edgeRow = new int[edges];
+        columnStart = new int[n + 1];
+        for (int j = 0; j < n; j++) {
+            columnStart[j + 1] = columnStart[j] + columnDegree[j];
+        }
+        columnEdges = new int[edges];
+        int[] next = Arrays.copyOf(columnStart, n);
+        for (int i = 0, e = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                if (H.get(i, j) != 0) {
+                    edgeColumn[e] = j;
+                    edgeRow[e] = i;
+                    columnEdges[next[j]++] = e;
+                    e++;
+                }
+            }
+        }
+
+        // The code is the dual of the row space of H
+        BitMatrix.Systematic rowSpace = H.rowBasis().toSystematic();
+        int rank = rowSpace.generator().getRows();
+        this.k = n - rank;
+        this.generator = rowSpace.parityCheckMatrix();
+        this.informationSet = Arrays.copyOfRange(rowSpace.permutation(), rank, n);
+    }
+
+    /**
+     * Generates a regular Gallager code: the first band of rows covers consecutive columns and
+     * every other band is a random column permutation of the first.
+     *
+     * @param n            length of the codeword, a multiple of rowWeight
+     * @param columnWeight number of checks per bit
+     * @param rowWeight    number of bits per check
+     * @param random       source of the permutations
+     * @return LDPC code
+     */
+    public static LdpcCode generate(int n, int columnWeight, int rowWeight, Random random) {
+        if (n % rowWeight != 0 || columnWeight >= rowWeight) {
+            throw new IllegalArgumentException("n must be a multiple of the row weight, which must exceed the column weight");
+        }
+        int bandRows = n / rowWeight;
+        BitMatrix H = new BitMatrix(bandRows * columnWeight, n);
+        int[] permutation = new int[n];
+        for (int j = 0; j < n; j++) {
+            permutation[j] = j;
+        }
+        for (int band = 0; band < columnWeight; band++) {
+            if (band > 0) {
+                for (int j = n - 1; j > 0; j--) {
+                    int other = random.nextInt(j + 1);
+                    int swap = permutation[j];
+                    permutation[j] = permutation[other];
+                    permutation[other] = swap;
+                }
+            }
+            for (int j = 0; j < n; j++) {
+                H.set(band * bandRows + j / rowWeight, permutation[j], 1);
+            }
+        }
+        return new LdpcCode(H);
+    }
+
+    public int[][] getParityCheckMatrix() {
+        int[][] H = new int[m][n];
+        for (int i = 0; i < m; i++) {
+            for (int e = rowStart[i]; e < rowStart[i + 1]; e++) {
+                H[i][edgeColumn[e]] = 1;
+            }
+        }
+        return H;
+    }
+
+    public int[][] getGenerator() {
+        return generator.toArray();
+    }
+
+    public Decoder decoder(Algorithm algorithm) {
+        return new Decoder() {
+            @Override
+            public int[] decode(int[] r) {
+                return switch (algorithm) {
+                    case BIT_FLIPPING -> decodeBitFlipping(r);
+                    case MIN_SUM -> decodeMinSum(r);
+                };
+            }
+
+            @Override
+            public int[] message(int[] codeword) {
+                return LdpcCode.this.message(codeword);
+            }
+
+            @Override
+            public int[] informationSet() {
+                return informationSet.clone();
+            }
+        };
+    }
+
+    public int[] message(int[] codeword) {
+        int[] message = new int[k];
+        for (int i = 0; i < k; i++) {
+            message[i] = codeword[informationSet[i]];
+        }
+        return message;
+    }
+
+    /**
+     * Computes the parity of every check.
+     * @param c hard decisions
+     * @param checks parity of each check, filled in
+     * @return number of unsatisfied checks
+     */
+    private int computeChecks(int[] c, int[] checks) {
+        int unsatisfied = 0;
+        for (int i = 0; i < m; i++) {
+            int parity = 0;
+            for (int e = rowStart[i]; e < rowStart[i + 1]; e++) {
+                parity ^= c[edgeColumn[e]];
+            }
+            checks[i] = parity;
+            unsatisfied += parity;
+        }
+        return unsatisfied;
+    }
+
+    /**
+     * Gallager bit flipping: in every iteration flip the bits that take part in the largest
+     * number of unsatisfied checks.
+     *
+     * @param r received vector
+     * @return corrected codeword
+     */
+    public int[] decodeBitFlipping(int[] r) {
+        int[] c = Arrays.copyOf(r, n);
+        int[] checks = new int[m];
+        int[] unsatisfied = new int[n];
+
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            if (computeChecks(c, checks) == 0) {
+                return c;
+            }
+            int max = 0;
+            for (int j = 0; j < n; j++) {
+                int count = 0;
+                for (int p = columnStart[j]; p < columnStart[j + 1]; p++) {
+                    count += checks[edgeRow[columnEdges[p]]];
+                }
+                unsatisfied[j] = count;
+                max = Math.max(max, count);
+            }
+            for (int j = 0; j < n; j++) {
+                if (unsatisfied[j] == max) {
+                    c[j] ^= 1;
+                }
+            }
+        }
+        return computeChecks(c, checks) == 0 ? c : Arrays.copyOf(r, n);
+    }
+
+    /**
+     * Normalized min-sum decoding. The channel only gives hard decisions, which min-sum can
+     * take as LLRs of +-1 because its updates are invariant to scaling.
+     *
+     * @param r received vector
+     * @return corrected codeword
+     */
+    public int[] decodeMinSum(int[] r) {
+        int edges = edgeColumn.length;
+        float[] variableToCheck = new float[edges];
+        float[] checkToVariable = new float[edges];
+        int[] c = Arrays.copyOf(r, n);
+        int[] checks = new int[m];
+
+        for (int e = 0; e < edges; e++) {
+            variableToCheck[e] = r[edgeColumn[e]] == 0 ? 1f : -1f;
+        }
+
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            if (computeChecks(c, checks) == 0) {
+                return c;
+            }
+
+            for (int i = 0; i < m; i++) {
+                float min1 = Float.MAX_VALUE;
+                float min2 = Float.MAX_VALUE;
+                int minEdge = -1;
+                boolean negative = false;
+                for (int e = rowStart[i]; e < rowStart[i + 1]; e++) {
+                    float value = variableToCheck[e];
+                    negative ^= value < 0;
+                    float magnitude = Math.abs(value);
+                    if (magnitude < min1) {
+                        min2 = min1;
+                        min1 = magnitude;
+                        minEdge = e;
+                    } else if (magnitude < min2) {
+                        min2 = magnitude;
+                    }
+                }
+                for (int e = rowStart[i]; e < rowStart[i + 1]; e++) {
+                    float magnitude = MIN_SUM_SCALE * (e == minEdge ? min2 : min1);
+                    boolean sign = negative ^ (variableToCheck[e] < 0);
+                    checkToVariable[e] = sign ? -magnitude : magnitude;
+                }
+            }
+
+            for (int j = 0; j < n; j++) {
+                float total = r[j] == 0 ? 1f : -1f;
+                for (int p = columnStart[j]; p < columnStart[j + 1]; p++) {
+                    total += checkToVariable[columnEdges[p]];
+                }
+                c[j] = total < 0 ? 1 : 0;
+                for (int p = columnStart[j]; p < columnStart[j + 1]; p++) {
+                    int e = columnEdges[p];
+                    variableToCheck[e] = total - checkToVariable[e];
+                }
+            }
+        }
+        return computeChecks(c, checks) == 0 ? c : Arrays.copyOf(r, n);
+    }
+}
@@ -0,0 +1,72 @@
+package processor;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes the output bytes straight into a memory-mapped file sized up front, so output of any
+ * size goes to the page cache without passing through the heap. The file is mapped at the final
+ * size of the output and is never resized: some systems refuse to change the size of a file
+ * while it is mapped, and a mapping is only released once it is garbage collected. A sink closed
+ * before all bytes are written, e.g. by a cancelled run, leaves a file of the full size whose
+ * unwritten tail is zero.
+ */
+public class MappedFileSink extends ByteSink {
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+    @Getter
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long size;
+    private long position;
+
+    /**
+     * @param path file to create or overwrite
+     * @param size number of bytes that will be written
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public MappedFileSink(Path path, long size) throws IOException {
+        this.path = path;
+        this.size = size;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            this.segments = new MappedByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_BITS)];
+            for (int i = 0; i < segments.length; i++) {
+                long offset = (long) i << SEGMENT_BITS;
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, offset, Math.min(size - offset, 1L << SEGMENT_BITS));
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    protected void acceptByte(int value) {
+        if (position >= size) {
+            throw new IllegalStateException("Output exceeds the " + size + " bytes mapped for " + path);
+        }
+        segments[(int) (position >>> SEGMENT_BITS)].put((int) (position & SEGMENT_MASK), (byte) value);
+        position++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try (channel) {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        }
+    }
+}
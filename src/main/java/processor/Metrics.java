@@ -0,0 +1,151 @@
+package processor;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Process-wide throughput counters and latency histograms of the block stages and of building
+ * codes. Stages are timed per call, usually a batch of blocks:
+ * <pre>
+ * long start = System.nanoTime();
+ * ...
+ * Metrics.record(Metrics.Stage.ENCODE, start, messages.length);
+ * </pre>
+ * Recording only adds to striped counters, so it allocates nothing and concurrent pipeline
+ * workers do not contend.
+ */
+public final class Metrics {
+    public static final String OBJECT_NAME = "coding-theory:type=Metrics";
+
+    public enum Stage {
+        /** taking blocks from the input */
+        SPLIT,
+        /** encoding messages */
+        ENCODE,
+        /** sending codewords and uncoded messages over the channel */
+        CHANNEL,
+        /** computing syndromes of received vectors */
+        SYNDROME,
+        /** correcting received vectors */
+        DECODE,
+        /** statistics and output sinks of completed blocks */
+        OUTPUT,
+        /** generating a random generator matrix */
+        GENERATOR,
+        /** bringing a generator matrix to systematic form */
+        SYSTEMATIC_FORM,
+        /** deriving the parity-check matrix */
+        PARITY_CHECK,
+        /** building a coset leader table */
+        COSET_LEADERS
+    }
+
+    private static final LatencyHistogram[] histograms = new LatencyHistogram[Stage.values().length];
+
+    static {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * Records one call of a stage that started at the given time.
+     *
+     * @param stage stage
+     * @param start {@link System#nanoTime()} when the call started
+     * @param items blocks or tables the call processed
+     */
+    public static void record(Stage stage, long start, int items) {
+        histograms[stage.ordinal()].record(System.nanoTime() - start, items);
+    }
+
+    public static StageMetrics snapshot(Stage stage) {
+        return histograms[stage.ordinal()].snapshot(stage.name());
+    }
+
+    /**
+     * Clears all counters.
+     */
+    public static void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Publishes the metrics on the platform MBean server; registering again does nothing.
+     */
+    public static synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new Bean(), name);
+            }
+        } catch (JMException e) {
+            System.err.println("Failed to register metrics: " + e.getMessage());
+        }
+    }
+
+    private static final class Bean implements MetricsMXBean {
+        @Override
+        public StageMetrics getSplit() {
+            return snapshot(Stage.SPLIT);
+        }
+
+        @Override
+        public StageMetrics getEncode() {
+            return snapshot(Stage.ENCODE);
+        }
+
+        @Override
+        public StageMetrics getChannel() {
+            return snapshot(Stage.CHANNEL);
+        }
+
+        @Override
+        public StageMetrics getSyndrome() {
+            return snapshot(Stage.SYNDROME);
+        }
+
+        @Override
+        public StageMetrics getDecode() {
+            return snapshot(Stage.DECODE);
+        }
+
+        @Override
+        public StageMetrics getOutput() {
+            return snapshot(Stage.OUTPUT);
+        }
+
+        @Override
+        public StageMetrics getGenerator() {
+            return snapshot(Stage.GENERATOR);
+        }
+
+        @Override
+        public StageMetrics getSystematicForm() {
+            return snapshot(Stage.SYSTEMATIC_FORM);
+        }
+
+        @Override
+        public StageMetrics getParityCheck() {
+            return snapshot(Stage.PARITY_CHECK);
+        }
+
+        @Override
+        public StageMetrics getCosetLeaders() {
+            return snapshot(Stage.COSET_LEADERS);
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package processor;
+
+/**
+ * Stage metrics as seen from JConsole or VisualVM, registered by {@link Metrics#registerMBean()}
+ * under {@link Metrics#OBJECT_NAME}.
+ */
+public interface MetricsMXBean {
+    StageMetrics getSplit();
+
+    StageMetrics getEncode();
+
+    StageMetrics getChannel();
+
+    StageMetrics getSyndrome();
+
+    StageMetrics getDecode();
+
+    StageMetrics getOutput();
+
+    StageMetrics getGenerator();
+
+    StageMetrics getSystematicForm();
+
+    StageMetrics getParityCheck();
+
+    StageMetrics getCosetLeaders();
+
+    /**
+     * Clears all counters.
+     */
+    void reset();
+}
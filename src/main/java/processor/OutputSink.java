@@ -0,0 +1,23 @@
+package processor;
+
+import java.io.IOException;
+
+/**
+ * Receives decoded blocks one at a time, in input order, so output can be assembled while the
+ * input is still being processed instead of after every block has been kept in memory.
+ */
+public interface OutputSink extends AutoCloseable {
+    /**
+     * @param block  decoded block
+     * @param length number of leading symbols that belong to the input, the rest is padding
+     */
+    void accept(int[] block, int length);
+
+    /**
+     * Writes out whatever the sink still buffers.
+     * @throws IOException if the output cannot be written
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,74 @@
+package processor;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the output in memory with each symbol packed into as few bits as the alphabet needs,
+ * one bit per symbol for binary codes instead of a 4 byte int.
+ */
+public class PackedSink implements OutputSink {
+    private final int bitsPerSymbol;
+    private final int symbolsPerWord;
+    private final long mask;
+    private long[] words = new long[16];
+    private int size;
+
+    /**
+     * @param q alphabet size
+     */
+    public PackedSink(int q) {
+        this.bitsPerSymbol = Math.max(1, 32 - Integer.numberOfLeadingZeros(q - 1));
+        this.symbolsPerWord = 64 / bitsPerSymbol;
+        this.mask = (1L << bitsPerSymbol) - 1;
+    }
+
+    @Override
+    public void accept(int[] block, int length) {
+        int needed = (size + length + symbolsPerWord - 1) / symbolsPerWord;
+        if (needed > words.length) {
+            words = Arrays.copyOf(words, Math.max(needed, 2 * words.length));
+        }
+        for (int i = 0; i < length; i++, size++) {
+            words[size / symbolsPerWord] |= (block[i] & mask) << (size % symbolsPerWord * bitsPerSymbol);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(int index) {
+        return (int) (words[index / symbolsPerWord] >>> (index % symbolsPerWord * bitsPerSymbol) & mask);
+    }
+
+    public int[] toArray() {
+        int[] symbols = new int[size];
+        for (int i = 0; i < size; i++) {
+            symbols[i] = get(i);
+        }
+        return symbols;
+    }
+
+    /**
+     * Reads the output as UTF-8 text, most significant bit first; symbols other than 0 count as
+     * 1, a trailing partial byte is dropped and malformed bytes become U+FFFD.
+     *
+     * @return decoded text
+     */
+    public StringBuilder toText() {
+        byte[] bytes = new byte[size / 8];
+        for (int i = 0; i < bytes.length; i++) {
+            int value = 0;
+            for (int j = 8 * i; j < 8 * i + 8; j++) {
+                value = value << 1 | (get(j) != 0 ? 1 : 0);
+            }
+            bytes[i] = (byte) value;
+        }
+        return Processor.decodeText(bytes, bytes.length);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -4,96 +4,91 @@ import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 public class Processor {
-    private BufferedImage inputImage;
-
-    public int[] getBitRepresentationFromImage(String inputPath) {
+    /**
+     * @param inputPath image file
+     * @return the image's pixels as bits, or null if it cannot be read
+     */
+    public ImageSource readImage(String inputPath) {
         try {
-            inputImage = ImageIO.read(new File(inputPath));
-            int width = inputImage.getWidth();
-            int height = inputImage.getHeight();
-            int[] bitsArray = new int[width * height * 24];
-            int bitIndex = 0;
-
-            for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++) {
-                    int rgb = inputImage.getRGB(x, y);
-                    int red = (rgb >> 16) & 0xFF;
-                    int green = (rgb >> 8) & 0xFF;
-                    int blue = rgb & 0xFF;
-
-                    for (int i = 7; i >= 0; i--) {
-                        bitsArray[bitIndex++] = (red >> i) & 1;
-                        bitsArray[bitIndex++] = (green >> i) & 1;
-                        bitsArray[bitIndex++] = (blue >> i) & 1;
-                    }
-                }
+            BufferedImage image = ImageIO.read(new File(inputPath));
+            if (image == null) {
+                Trace.event(Trace.Level.ERROR, "Error reading image " + inputPath + ": unsupported format");
+                return null;
             }
-            return bitsArray;
+            return new ImageSource(image);
         } catch (IOException e) {
-            System.out.println("Error reading image: " + e.getMessage());
-            return new int[0];
+            Trace.event(Trace.Level.ERROR, "Error reading image: " + e.getMessage());
+            return null;
         }
     }
 
-    public void writeImage(int[] bitStream, String outputPath) {
-        try {
-            int width = inputImage.getWidth();
-            int height = inputImage.getHeight();
-            BufferedImage image = getImage(bitStream, width, height);
-
-            ImageIO.write(image, "png", new File(outputPath));
-            System.out.println("Image written successfully to " + outputPath);
-
-        } catch (IOException e) {
-            System.out.println("Error writing image: " + e.getMessage());
-        }
+    public int[] getBitRepresentationFromVector(String input) {
+        return Arrays.stream(input.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
     }
 
-    private static BufferedImage getImage(int[] bitStream, int width, int height) {
-        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        int bitIndex = 0;
-
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int red = 0, green = 0, blue = 0;
-
-                for (int i = 0; i < 8; i++) {
-                    red = (red << 1) | bitStream[bitIndex++];
-                    green = (green << 1) | bitStream[bitIndex++];
-                    blue = (blue << 1) | bitStream[bitIndex++];
-                }
-
-                int rgb = (red << 16) | (green << 8) | blue;
-                image.setRGB(x, y, rgb);
-            }
-        }
-        return image;
+    /**
+     * @param text text to send
+     * @return bits of the UTF-8 encoding of the text
+     */
+    public ByteSource readText(String text) {
+        return ByteSource.of(text.getBytes(StandardCharsets.UTF_8));
     }
 
-    public int[] getBitRepresentationFromVector(String input) {
-        return Arrays.stream(input.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    /**
+     * @param inputPath file to send as it is, mapped rather than loaded
+     * @return bits of the file's bytes, or null if it cannot be read
+     */
+    public ByteSource readFile(String inputPath) {
+        try {
+            return ByteSource.map(Path.of(inputPath));
+        } catch (IOException | InvalidPathException e) {
+            Trace.event(Trace.Level.ERROR, "Error reading file: " + e.getMessage());
+            return null;
+        }
     }
 
-    public int[] getBitRepresentationFromText(String text) {
-        StringBuilder bitStringBuilder = new StringBuilder();
-        for (char c : text.toCharArray()) {
-            String binaryString = String.format("%8s", Integer.toBinaryString(c)).replace(' ', '0');
-            bitStringBuilder.append(binaryString);
+    /**
+     * Reads bits as UTF-8 text, most significant bit first; symbols other than 0 count as 1, a
+     * trailing partial byte is dropped and malformed bytes become U+FFFD.
+     *
+     * @param bits bits to read
+     * @return decoded text
+     */
+    public static StringBuilder getStringFromBits(int[] bits) {
+        byte[] bytes = new byte[bits.length / 8];
+        for (int i = 0; i < bytes.length; i++) {
+            int value = 0;
+            for (int j = 8 * i; j < 8 * i + 8; j++) {
+                value = value << 1 | (bits[j] != 0 ? 1 : 0);
+            }
+            bytes[i] = (byte) value;
         }
-        return bitStringBuilder.toString().chars().map(c -> c - '0').toArray();
+        return decodeText(bytes, bytes.length);
     }
 
-    public static StringBuilder getStringFromBits(int[] bits) {
-        StringBuilder decodedText = new StringBuilder();
-        for (int i = 0; i + 8 <= bits.length; i += 8) {
-            String byteStr = Arrays.stream(Arrays.copyOfRange(bits, i, i + 8))
-                    .collect(StringBuilder::new, StringBuilder::append, StringBuilder::append)
-                    .toString();
-            decodedText.append((char) Integer.parseInt(byteStr, 2));
+    /**
+     * @param bytes  UTF-8 bytes
+     * @param length number of leading bytes to decode
+     * @return decoded text, with malformed bytes replaced by U+FFFD
+     */
+    public static StringBuilder decodeText(byte[] bytes, int length) {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        try {
+            return new StringBuilder(decoder.decode(ByteBuffer.wrap(bytes, 0, length)));
+        } catch (CharacterCodingException e) {
+            throw new IllegalStateException("Replacing decoder failed", e);
         }
-        return decodedText;
     }
 }
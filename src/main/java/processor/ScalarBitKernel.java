@@ -0,0 +1,15 @@
+package processor;
+
+class ScalarBitKernel implements BitKernel {
+    @Override
+    public int parity(long[] a, long[] b) {
+        return Bits.parity(a, b);
+    }
+
+    @Override
+    public void xorInto(long[] dst, long[] src, int srcOffset) {
+        for (int i = 0; i < dst.length; i++) {
+            dst[i] ^= src[srcOffset + i];
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package processor;
+
+import lombok.Getter;
+
+/**
+ * Counters and latency percentiles of one stage at the time they were read. Percentiles are
+ * upper bounds of histogram buckets, at most a quarter above the exact value and never above
+ * the maximum.
+ */
+@Getter
+public class StageMetrics {
+    private final String name;
+    private final long calls;
+    private final long items;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+
+    public StageMetrics(String name, long calls, long items, long totalNanos, long maxNanos,
+                        long p50Nanos, long p90Nanos, long p99Nanos) {
+        this.name = name;
+        this.calls = calls;
+        this.items = items;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+    }
+
+    /**
+     * @return mean duration of a call
+     */
+    public long getMeanNanos() {
+        return calls > 0 ? totalNanos / calls : 0;
+    }
+
+    /**
+     * @return items processed per second spent in the stage
+     */
+    public double getItemsPerSecond() {
+        return totalNanos > 0 ? items * 1e9 / totalNanos : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d calls, %d items, %.3f ms, p50 %d ns, p99 %d ns, max %d ns",
+                name, calls, items, totalNanos / 1e6, p50Nanos, p99Nanos, maxNanos);
+    }
+}
@@ -0,0 +1,117 @@
+package processor;
+
+import java.util.Arrays;
+
+/**
+ * Decoder bound to a parity-check matrix and its coset leaders.
+ * The syndrome of every column of H is precomputed, so flipping bit i of a received
+ * vector changes its syndrome by a single XOR with column i.
+ */
+public class SyndromeDecoder {
+    private final int[] columnSyndromes;
+    private final CosetLeaderTable cosetLeaders;
+
+    public SyndromeDecoder(int[][] H, CosetLeaderTable cosetLeaders) {
+        this.columnSyndromes = CosetLeaderBuilder.columnSyndromes(H);
+        this.cosetLeaders = cosetLeaders;
+    }
+
+    /**
+     * Computes the syndrome of a received vector from the column syndromes.
+     * @param r received vector
+     * @return syndrome value
+     */
+    public int syndrome(int[] r) {
+        int s = 0;
+        for (int j = 0; j < r.length; j++) {
+            if (r[j] != 0) {
+                s ^= columnSyndromes[j];
+            }
+        }
+        return s;
+    }
+
+    /**
+     * A syndrome outside a bounded table signals an error that was detected but cannot be corrected.
+     * @param s syndrome value
+     * @return whether the syndrome has a coset leader
+     */
+    public boolean isCorrectable(int s) {
+        return cosetLeaders.isAssigned(s);
+    }
+
+    public int[] decode(int[] r, DecodingStrategy strategy) {
+        return decode(r, syndrome(r), strategy);
+    }
+
+    /**
+     * Decodes a received vector whose syndrome is already known, e.g. from a batch.
+     * @param r received vector
+     * @param s syndrome of r
+     * @param strategy decoding strategy
+     * @return decoded vector
+     */
+    public int[] decode(int[] r, int s, DecodingStrategy strategy) {
+        return switch (strategy) {
+            case STEP_BY_STEP -> decodeStepByStep(r, s);
+            case COSET_LEADER -> decodeWithCosetLeader(r, s);
+        };
+    }
+
+    /**
+     * Step-by-step decoding: bit i stays flipped if that lowers the weight of the coset leader.
+     * The running syndrome is carried across the flips, so each step is one XOR and one lookup.
+     *
+     * @param r received vector
+     * @return decoded vector
+     */
+    public int[] decodeStepByStep(int[] r) {
+        return decodeStepByStep(r, syndrome(r));
+    }
+
+    private int[] decodeStepByStep(int[] r, int s) {
+        int n = r.length;
+        int[] rCopy = Arrays.copyOf(r, n);
+        if (!cosetLeaders.isAssigned(s)) {
+            Trace.event(Trace.Level.ERROR, "Cannot decode the received vector", rCopy);
+            return rCopy;
+        }
+        int w = cosetLeaders.weight(s);
+
+        for (int i = 0; w != 0; i++) {
+            if (i >= n) {
+                Trace.event(Trace.Level.ERROR, "Cannot decode the received vector", r);
+                return rCopy;
+            }
+
+            int sNew = s ^ columnSyndromes[i];
+            int wNew = cosetLeaders.weight(sNew);
+            if (wNew < w) {
+                rCopy[i] ^= 1;
+                s = sNew;
+                w = wNew;
+            }
+        }
+        return rCopy;
+    }
+
+    /**
+     * Decodes a received vector by subtracting the coset leader of its syndrome.
+     * @param r received vector
+     * @return decoded vector
+     */
+    public int[] decodeWithCosetLeader(int[] r) {
+        return decodeWithCosetLeader(r, syndrome(r));
+    }
+
+    private int[] decodeWithCosetLeader(int[] r, int s) {
+        if (!cosetLeaders.isAssigned(s)) {
+            int[] copy = Arrays.copyOf(r, r.length);
+            Trace.event(Trace.Level.ERROR, "Cannot decode the received vector", copy);
+            return copy;
+        }
+        long[] packed = Bits.pack(r);
+        cosetLeaders.correct(packed, s);
+        return Bits.unpack(packed, r.length);
+    }
+}
@@ -0,0 +1,73 @@
+package processor;
+
+/**
+ * Encoder pre-bound to a generator matrix (method of Four Russians).
+ * The rows of G are grouped in chunks of 8 and all 256 XOR combinations of each chunk are
+ * precomputed, so encoding takes one table lookup and one row XOR per 8 message bits.
+ */
+public class TableEncoder {
+    private static final int CHUNK = 8;
+    private static final BitKernel kernel = BitKernel.get();
+
+    private final int k;
+    private final int n;
+    private final int words;
+    private final long[][] tables;
+
+    public TableEncoder(int[][] G) {
+        this(Bits.pack(G), G[0].length);
+    }
+
+    /**
+     * @param G packed generator matrix
+     * @param n length of the codeword
+     */
+    public TableEncoder(long[][] G, int n) {
+        this.k = G.length;
+        this.n = n;
+        this.words = Bits.words(n);
+        this.tables = new long[(k + CHUNK - 1) / CHUNK][];
+        for (int chunk = 0; chunk < tables.length; chunk++) {
+            tables[chunk] = buildTable(G, chunk * CHUNK);
+        }
+    }
+
+    /**
+     * Builds the combinations of up to 8 rows starting at the given row.
+     * Entry v is entry (v without its lowest bit) XOR the row of that lowest bit.
+     */
+    private long[] buildTable(long[][] G, int firstRow) {
+        int rows = Math.min(CHUNK, k - firstRow);
+        long[] table = new long[(1 << rows) * words];
+        for (int v = 1; v < 1 << rows; v++) {
+            int lowest = Integer.numberOfTrailingZeros(v);
+            int previous = (v & (v - 1)) * words;
+            long[] row = G[firstRow + lowest];
+            for (int i = 0; i < words; i++) {
+                table[v * words + i] = table[previous + i] ^ row[i];
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Encodes a packed message.
+     * @param m packed message of k bits
+     * @return packed codeword of n bits
+     */
+    public long[] encode(long[] m) {
+        long[] c = new long[words];
+        for (int chunk = 0; chunk < tables.length; chunk++) {
+            int bit = chunk * CHUNK;
+            int v = (int) (m[bit >>> 6] >>> bit) & ((1 << Math.min(CHUNK, k - bit)) - 1);
+            if (v != 0) {
+                kernel.xorInto(c, tables[chunk], v * words);
+            }
+        }
+        return c;
+    }
+
+    public int[] encode(int[] m) {
+        return Bits.unpack(encode(Bits.pack(m)), n);
+    }
+}
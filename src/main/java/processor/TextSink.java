@@ -0,0 +1,54 @@
+package processor;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Collects the output as UTF-8 text, decoded as the bytes arrive. Malformed bytes, such as
+ * those left by uncorrected errors, become U+FFFD; a character split at the end of the output is
+ * completed or replaced when the sink is closed.
+ */
+public class TextSink extends ByteSink {
+    private final StringBuilder text = new StringBuilder();
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final ByteBuffer bytes = ByteBuffer.allocate(8192);
+    private final CharBuffer chars = CharBuffer.allocate(8192);
+
+    @Override
+    protected void acceptByte(int value) {
+        bytes.put((byte) value);
+        if (!bytes.hasRemaining()) {
+            decode(false);
+        }
+    }
+
+    private void decode(boolean endOfInput) {
+        bytes.flip();
+        decoder.decode(bytes, chars, endOfInput);
+        if (endOfInput) {
+            decoder.flush(chars);
+            decoder.reset();
+        }
+        bytes.compact();
+        text.append(chars.flip());
+        chars.clear();
+    }
+
+    /**
+     * @return text decoded so far; complete after {@link #close()}
+     */
+    public StringBuilder getText() {
+        decode(false);
+        return text;
+    }
+
+    @Override
+    public void close() {
+        decode(true);
+    }
+}
@@ -0,0 +1,256 @@
+package processor;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Leveled trace of the block pipeline, off by default. Recording an event only claims a slot in
+ * a lock-free ring buffer; a background thread formats the events and writes them out, so
+ * tracing never waits on console or file I/O. Events that find the buffer full are dropped and
+ * counted instead of slowing down the caller.
+ * <p>
+ * Text records are one line per event. Binary records are, in big-endian order: the time in
+ * nanoseconds since tracing started (long), the level (byte), the message (modified UTF-8 as
+ * written by {@link DataOutputStream#writeUTF(String)}), the number of values or -1 (int) and
+ * the values (ints).
+ */
+public final class Trace {
+    public enum Level {ERROR, INFO, DEBUG}
+
+    public enum Format {TEXT, BINARY}
+
+    private static final int CAPACITY = 1 << 14;
+    private static final long IDLE_NANOS = 200_000;
+
+    private static volatile int threshold = -1;
+    private static volatile Writer writer;
+    private static final LongAdder dropped = new LongAdder();
+
+    private Trace() {
+    }
+
+    private record Event(long time, Level level, String message, int[] values) {
+    }
+
+    /**
+     * Starts tracing events up to the given level, replacing any running trace.
+     *
+     * @param level  most detailed level to record
+     * @param format record format
+     * @param output stream to write to; it is flushed but not closed by {@link #stop()}
+     */
+    public static synchronized void start(Level level, Format format, OutputStream output) {
+        stop();
+        writer = new Writer(format, output);
+        writer.thread.start();
+        threshold = level.ordinal();
+    }
+
+    /**
+     * Stops tracing after writing the events already recorded.
+     */
+    public static synchronized void stop() {
+        threshold = -1;
+        Writer current = writer;
+        if (current == null) {
+            return;
+        }
+        writer = null;
+        current.stopping = true;
+        LockSupport.unpark(current.thread);
+        try {
+            current.thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits until the events recorded so far are written, so console output that follows is not
+     * interleaved with them.
+     */
+    public static void flush() {
+        Writer current = writer;
+        while (current != null && !current.isDrained() && current.thread.isAlive()) {
+            LockSupport.parkNanos(IDLE_NANOS);
+        }
+    }
+
+    /**
+     * @param level event level
+     * @return whether events of the level are recorded; check before building costly messages
+     */
+    public static boolean isEnabled(Level level) {
+        return level.ordinal() <= threshold;
+    }
+
+    /**
+     * @return currently traced level, null when tracing is off
+     */
+    public static Level getLevel() {
+        int current = threshold;
+        return current < 0 ? null : Level.values()[current];
+    }
+
+    public static void event(Level level, String message) {
+        event(level, message, null);
+    }
+
+    /**
+     * Records an event. The values are formatted later on the writer thread, so the caller must
+     * not change them afterwards.
+     *
+     * @param level   event level
+     * @param message event message
+     * @param values  vector attached to the event, or null
+     */
+    public static void event(Level level, String message, int[] values) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        Writer current = writer;
+        if (current == null || !current.ring.offer(new Event(System.nanoTime(), level, message, values))) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * @return events dropped because the buffer was full
+     */
+    public static long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Bounded multi-producer, single-consumer ring. Each slot carries a sequence number: a
+     * producer may fill slot i for position p once its sequence is p, and publishes it by setting
+     * the sequence to p + 1; the consumer frees it for position p + capacity.
+     */
+    private static final class RingBuffer {
+        private final Event[] events;
+        private final AtomicLongArray sequences;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private volatile long head;
+
+        RingBuffer(int capacity) {
+            this.events = new Event[capacity];
+            this.sequences = new AtomicLongArray(capacity);
+            this.mask = capacity - 1;
+            for (int i = 0; i < capacity; i++) {
+                sequences.set(i, i);
+            }
+        }
+
+        boolean offer(Event event) {
+            long position = tail.get();
+            while (true) {
+                int index = (int) position & mask;
+                long difference = sequences.get(index) - position;
+                if (difference == 0) {
+                    if (tail.compareAndSet(position, position + 1)) {
+                        events[index] = event;
+                        sequences.set(index, position + 1);
+                        return true;
+                    }
+                    position = tail.get();
+                } else if (difference < 0) {
+                    return false;
+                } else {
+                    position = tail.get();
+                }
+            }
+        }
+
+        Event poll() {
+            long position = head;
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                return null;
+            }
+            Event event = events[index];
+            events[index] = null;
+            sequences.set(index, position + mask + 1);
+            head = position + 1;
+            return event;
+        }
+
+        boolean isEmpty() {
+            return head == tail.get();
+        }
+    }
+
+    private static final class Writer implements Runnable {
+        private final RingBuffer ring = new RingBuffer(CAPACITY);
+        private final Thread thread = new Thread(this, "trace-writer");
+        private final Format format;
+        private final OutputStream output;
+        private final long start = System.nanoTime();
+        private volatile boolean stopping;
+        private volatile boolean writing;
+
+        Writer(Format format, OutputStream output) {
+            this.format = format;
+            this.output = output;
+            thread.setDaemon(true);
+        }
+
+        boolean isDrained() {
+            return ring.isEmpty() && !writing;
+        }
+
+        @Override
+        public void run() {
+            PrintStream text = format == Format.TEXT
+                    ? new PrintStream(new BufferedOutputStream(output, 1 << 16), false, StandardCharsets.UTF_8) : null;
+            DataOutputStream binary = format == Format.BINARY
+                    ? new DataOutputStream(new BufferedOutputStream(output, 1 << 16)) : null;
+            try {
+                while (true) {
+                    writing = true;
+                    Event event = ring.poll();
+                    if (event == null) {
+                        if (text != null) {
+                            text.flush();
+                        } else {
+                            binary.flush();
+                        }
+                        writing = false;
+                        if (stopping && ring.isEmpty()) {
+                            return;
+                        }
+                        LockSupport.parkNanos(IDLE_NANOS);
+                        continue;
+                    }
+                    if (text != null) {
+                        text.printf("%10.3f ms %-5s %s%s%n", (event.time() - start) / 1e6, event.level(), event.message(),
+                                event.values() != null ? ": " + Arrays.toString(event.values()) : "");
+                    } else {
+                        binary.writeLong(event.time() - start);
+                        binary.writeByte(event.level().ordinal());
+                        binary.writeUTF(event.message());
+                        binary.writeInt(event.values() != null ? event.values().length : -1);
+                        if (event.values() != null) {
+                            for (int value : event.values()) {
+                                binary.writeInt(value);
+                            }
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Trace stopped: " + e.getMessage());
+            } finally {
+                writing = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package processor;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * One stream sent through a {@link CodeContext}: the input cursor, the current block and the
+ * running statistics. Sessions are cheap and confined to one thread; any number of them can
+ * share the same context and channel.
+ */
+@Getter
+public class TransmissionSession {
+    private static final int BATCH_SIZE = 64;
+
+    private final CodeContext context;
+    private final ErrorChannel channel;
+    private final Processor processor = new Processor();
+    private OutputSink decodedOutput;
+    private OutputSink withoutCodeOutput;
+
+    private int[] block;
+    private int[] blockWithoutCode;
+    private int[] encodedBlock;
+    @Setter
+    private int[] blockWithError;
+    @Setter
+    private int[] blockWithoutCodeAndError;
+    private int[] correctedBlock;
+    private int[] decodedBlock;
+    private InputSource input = InputSource.of(new int[0]);
+    private long currentBitPosition = 0;
+    private long outputPosition = 0;
+
+    private BlockStatistics statistics;
+
+    private long currentBlock = 0;
+    private long totalBlocks = 0;
+
+    /**
+     * @param context code to send the stream through
+     * @param channel channel the blocks are sent over
+     */
+    public TransmissionSession(CodeContext context, ErrorChannel channel) {
+        this.context = context;
+        this.channel = channel;
+        this.statistics = new BlockStatistics(context.getN(), context.informationSet());
+        setOutput(new PackedSink(context.getQ()), new PackedSink(context.getQ()));
+    }
+
+    public void generateInputBits(String inputType, String input) {
+        switch (inputType) {
+            case "Vector" -> setInputBits(processor.getBitRepresentationFromVector(input));
+            case "Text" -> setInput(processor.readText(input));
+            case "Text file", "File" -> {
+                ByteSource file = processor.readFile(input);
+                setInput(file != null ? file : InputSource.of(new int[0]));
+            }
+            case "Image" -> {
+                ImageSource image = processor.readImage(input);
+                setInput(image != null ? image : InputSource.of(new int[0]));
+            }
+            default -> setInputBits(new int[0]);
+        }
+    }
+
+    /**
+     * Replaces the input; the cursor is kept, {@link #clear()} rewinds it.
+     * @param inputBits bits to send
+     */
+    public void setInputBits(int[] inputBits) {
+        setInput(InputSource.of(inputBits));
+    }
+
+    /**
+     * Replaces the input; the cursor is kept, {@link #clear()} rewinds it.
+     * @param input symbols to send
+     */
+    public void setInput(InputSource input) {
+        this.input = input;
+        this.totalBlocks = (input.length() + context.getK() - 1) / context.getK();
+    }
+
+    public boolean hasNextBlock() {
+        return currentBitPosition < input.length();
+    }
+
+    /**
+     * @return blocks left to take from the input
+     */
+    public long getRemainingBlocks() {
+        return (input.length() - currentBitPosition + context.getK() - 1) / context.getK();
+    }
+
+    public void nextBlock() {
+        if (!hasNextBlock()) {
+            return;
+        }
+        block = nextBlocks(1)[0];
+    }
+
+    public void encodeBlock() {
+        encodedBlock = context.encode(block);
+        blockWithoutCode = block;
+    }
+
+    public void introduceErrors() {
+        long start = System.nanoTime();
+        blockWithError = channel.transmit(encodedBlock);
+        blockWithoutCodeAndError = channel.transmit(blockWithoutCode);
+        Metrics.record(Metrics.Stage.CHANNEL, start, 1);
+    }
+
+    public void decodeBlock() {
+        boolean[] uncorrectable = new boolean[1];
+        correctedBlock = context.decodeBatch(new int[][]{blockWithError}, uncorrectable)[0];
+        long start = System.nanoTime();
+        completeBlock(uncorrectable[0]);
+        Metrics.record(Metrics.Stage.OUTPUT, start, 1);
+    }
+
+    /**
+     * Runs up to 64 of the remaining blocks through encoding, the channel and decoding at once.
+     * Encoding and syndromes are computed bit-sliced for the whole batch.
+     */
+    public void processBatch() {
+        processBatch(this::introduceErrors);
+    }
+
+    /**
+     * Runs up to 64 of the remaining blocks through encoding, the channel and decoding at once.
+     * @param channel called once per block with the block and its encoding set, must set
+     *                blockWithError and blockWithoutCodeAndError
+     */
+    public void processBatch(Runnable channel) {
+        int[][] messages = nextBlocks(BATCH_SIZE);
+        int count = messages.length;
+
+        int[][] encoded = context.encodeBatch(messages);
+        int[][] received = new int[count][];
+        int[][] receivedWithoutCode = new int[count][];
+        for (int i = 0; i < count; i++) {
+            block = messages[i];
+            encodedBlock = encoded[i];
+            blockWithoutCode = block;
+            channel.run();
+            received[i] = blockWithError;
+            receivedWithoutCode[i] = blockWithoutCodeAndError;
+        }
+
+        boolean[] uncorrectable = new boolean[count];
+        int[][] corrected = context.decodeBatch(received, uncorrectable);
+        completeBatch(messages, encoded, received, receivedWithoutCode, corrected, uncorrectable);
+    }
+
+    /**
+     * Takes up to count of the remaining blocks, advancing the cursor. Only the cursor is
+     * changed, so another thread may split the input while blocks are being completed.
+     *
+     * @param count largest number of blocks to take
+     * @return messages of length k, the last one zero-padded
+     */
+    public int[][] nextBlocks(int count) {
+        long start = System.nanoTime();
+        int k = context.getK();
+        int[][] messages = new int[(int) Math.min(count, getRemainingBlocks())][];
+        for (int i = 0; i < messages.length; i++) {
+            int length = (int) Math.min(k, input.length() - currentBitPosition);
+            messages[i] = new int[k];
+            input.read(currentBitPosition, messages[i], length);
+            currentBitPosition += k;
+            currentBlock++;
+            if (Trace.isEnabled(Trace.Level.DEBUG)) {
+                Trace.event(Trace.Level.DEBUG, "Block " + currentBlock + "/" + totalBlocks, Arrays.copyOf(messages[i], length));
+            }
+        }
+        Metrics.record(Metrics.Stage.SPLIT, start, messages.length);
+        return messages;
+    }
+
+    /**
+     * Takes up to count of the remaining blocks of binary input packed, like
+     * {@link #nextBlocks(int)}, without expanding every bit to an int.
+     *
+     * @param count largest number of blocks to take
+     * @return packed messages of k bits, the last one zero-padded
+     */
+    public long[][] nextPackedBlocks(int count) {
+        long start = System.nanoTime();
+        int k = context.getK();
+        long[][] messages = new long[(int) Math.min(count, getRemainingBlocks())][];
+        for (int i = 0; i < messages.length; i++) {
+            int length = (int) Math.min(k, input.length() - currentBitPosition);
+            messages[i] = new long[Bits.words(k)];
+            input.read(currentBitPosition, messages[i], length);
+            currentBitPosition += k;
+            currentBlock++;
+            if (Trace.isEnabled(Trace.Level.DEBUG)) {
+                Trace.event(Trace.Level.DEBUG, "Block " + currentBlock + "/" + totalBlocks, Bits.unpack(messages[i], length));
+            }
+        }
+        Metrics.record(Metrics.Stage.SPLIT, start, messages.length);
+        return messages;
+    }
+
+    /**
+     * Adds blocks that were encoded, sent and decoded elsewhere to the statistics and output,
+     * in the order given.
+     *
+     * @param messages            blocks taken by {@link #nextBlocks(int)}
+     * @param encoded             their codewords
+     * @param received            codewords after the channel
+     * @param receivedWithoutCode blocks sent uncoded after the channel
+     * @param corrected           decoded codewords
+     * @param uncorrectable       blocks whose syndrome has no coset leader
+     */
+    public void completeBatch(int[][] messages, int[][] encoded, int[][] received, int[][] receivedWithoutCode,
+                              int[][] corrected, boolean[] uncorrectable) {
+        long start = System.nanoTime();
+        for (int i = 0; i < messages.length; i++) {
+            block = messages[i];
+            encodedBlock = encoded[i];
+            blockWithoutCode = block;
+            blockWithError = received[i];
+            blockWithoutCodeAndError = receivedWithoutCode[i];
+            correctedBlock = corrected[i];
+            completeBlock(uncorrectable[i]);
+        }
+        Metrics.record(Metrics.Stage.OUTPUT, start, messages.length);
+    }
+
+    private void completeBlock(boolean uncorrectable) {
+        decodedBlock = context.message(correctedBlock);
+        int length = (int) Math.min(context.getK(), input.length() - outputPosition);
+        statistics.add(block, encodedBlock, blockWithError, decodedBlock, blockWithoutCodeAndError, length, uncorrectable);
+        if (Trace.isEnabled(Trace.Level.DEBUG)) {
+            Trace.event(Trace.Level.DEBUG, "Block", block);
+            Trace.event(Trace.Level.DEBUG, "Encoded block", encodedBlock);
+            Trace.event(Trace.Level.DEBUG, "Block with error", blockWithError);
+            Trace.event(Trace.Level.DEBUG, "Corrected block", correctedBlock);
+            Trace.event(Trace.Level.DEBUG, "Decoded block", decodedBlock);
+            Trace.event(Trace.Level.DEBUG, "Block without code", blockWithoutCode);
+            Trace.event(Trace.Level.DEBUG, "Block without code and error", blockWithoutCodeAndError);
+        }
+        decodedOutput.accept(decodedBlock, length);
+        withoutCodeOutput.accept(blockWithoutCodeAndError, length);
+        outputPosition += context.getK();
+    }
+
+    public int getErrorCount() {
+        return BlockStatistics.count(BlockStatistics.differences(encodedBlock, blockWithError));
+    }
+
+    public int[] getErrorPositions() {
+        return BlockStatistics.positions(BlockStatistics.differences(encodedBlock, blockWithError));
+    }
+
+    public int getNoCodingErrorCount() {
+        return BlockStatistics.count(BlockStatistics.differences(blockWithoutCode, blockWithoutCodeAndError));
+    }
+
+    public int[] getNoCodingErrorPositions() {
+        return BlockStatistics.positions(BlockStatistics.differences(blockWithoutCode, blockWithoutCodeAndError));
+    }
+
+    /**
+     * Sends the output to the given sinks instead of keeping it in memory.
+     * @param decodedOutput     receives the decoded blocks
+     * @param withoutCodeOutput receives the blocks sent without coding
+     */
+    public final void setOutput(OutputSink decodedOutput, OutputSink withoutCodeOutput) {
+        this.decodedOutput = decodedOutput;
+        this.withoutCodeOutput = withoutCodeOutput;
+    }
+
+    /**
+     * Rebuilds the input image from the output, written when the output is closed.
+     * @throws IllegalStateException if the input is not an image
+     */
+    public void useImageOutput() {
+        if (!(input instanceof ImageSource image)) {
+            throw new IllegalStateException("No image has been read");
+        }
+        setOutput(image.sink("img/img_decoded.png"), image.sink("img/img_without_code.png"));
+    }
+
+    /**
+     * Writes the output bytes into memory-mapped files sized for the input, creating their
+     * directories; a file input comes back byte for byte when no errors remain.
+     * @param decoded     file of the decoded output
+     * @param withoutCode file of the output sent without coding
+     * @throws IOException if a file cannot be created
+     */
+    public void useFileOutput(Path decoded, Path withoutCode) throws IOException {
+        for (Path path : new Path[]{decoded, withoutCode}) {
+            Path directory = path.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+        }
+        long size = input.length() / 8;
+        MappedFileSink decodedSink = new MappedFileSink(decoded, size);
+        try {
+            setOutput(decodedSink, new MappedFileSink(withoutCode, size));
+        } catch (IOException e) {
+            decodedSink.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes both sinks, writing out what they still buffer.
+     */
+    public void closeOutput() {
+        try {
+            close(decodedOutput);
+        } finally {
+            close(withoutCodeOutput);
+        }
+    }
+
+    private static void close(OutputSink sink) {
+        try {
+            sink.close();
+        } catch (Exception e) {
+            Trace.event(Trace.Level.ERROR, "Failed to write output: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Resets the statistics and starts new in-memory output; the input is kept and rewound.
+     */
+    public void clear() {
+        statistics = new BlockStatistics(context.getN(), context.informationSet());
+        currentBlock = 0;
+        currentBitPosition = 0;
+        outputPosition = 0;
+        setOutput(new PackedSink(context.getQ()), new PackedSink(context.getQ()));
+    }
+}
@@ -0,0 +1,46 @@
+package processor;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD kernels on the Vector API. Only loaded when the jdk.incubator.vector module is present.
+ */
+class VectorBitKernel implements BitKernel {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    @Override
+    public int parity(long[] a, long[] b) {
+        int i = 0;
+        long acc = 0;
+        int bound = SPECIES.loopBound(a.length);
+        if (bound > 0) {
+            LongVector sum = LongVector.zero(SPECIES);
+            for (; i < bound; i += SPECIES.length()) {
+                LongVector va = LongVector.fromArray(SPECIES, a, i);
+                LongVector vb = LongVector.fromArray(SPECIES, b, i);
+                sum = sum.lanewise(VectorOperators.XOR, va.and(vb));
+            }
+            acc = sum.reduceLanes(VectorOperators.XOR);
+        }
+        for (; i < a.length; i++) {
+            acc ^= a[i] & b[i];
+        }
+        return Long.bitCount(acc) & 1;
+    }
+
+    @Override
+    public void xorInto(long[] dst, long[] src, int srcOffset) {
+        int i = 0;
+        int bound = SPECIES.loopBound(dst.length);
+        for (; i < bound; i += SPECIES.length()) {
+            LongVector vd = LongVector.fromArray(SPECIES, dst, i);
+            LongVector vs = LongVector.fromArray(SPECIES, src, srcOffset + i);
+            vd.lanewise(VectorOperators.XOR, vs).intoArray(dst, i);
+        }
+        for (; i < dst.length; i++) {
+            dst[i] ^= src[srcOffset + i];
+        }
+    }
+}
@@ -8,12 +8,12 @@ import javafx.scene.control.TextField;
 import javafx.scene.control.cell.TextFieldTableCell;
 import javafx.util.converter.IntegerStringConverter;
 import model.CosetLeader;
-import processor.Data;
+import processor.CodeContext;
 
 import java.util.Arrays;
 
 public class FxTableInterface {
-    private final Data data;
+    private final Workspace workspace;
     public TextField columnsField;
     public TextField rowsField;
     public TableView<Integer[]> generatingMatrixTable;
@@ -21,24 +21,23 @@ public class FxTableInterface {
     public TableView<CosetLeader> cosetLeaderTable;
     public TextField totalCosetLeaders;
 
-    public FxTableInterface() {
-        this.data = Data.getInstance();
+    public FxTableInterface(Workspace workspace) {
+        this.workspace = workspace;
     }
 
     public void generateMatrix() {
-        data.setN(Integer.parseInt(columnsField.getText()));
-        data.setK(Integer.parseInt(rowsField.getText()));
+        workspace.setN(Integer.parseInt(columnsField.getText()));
+        workspace.setK(Integer.parseInt(rowsField.getText()));
 
-        if (data.getN() <= data.getK()) {
+        if (workspace.getN() <= workspace.getK()) {
             showAlert("The number of rows (k) should be less or equal to the number of columns (n).");
             return;
         }
 
-        data.generateGeneratingMatrix();
-        setupMatrixTable(generatingMatrixTable, data.getG(), data.getK(), data.getN());
-        data.generateParityCheckMatrix();
-        setupMatrixTable(parityCheckMatrixTable, data.getH(), data.getN() - data.getK(), data.getN());
-        data.generateCosetLeaders();
+        workspace.generateCode();
+        CodeContext context = workspace.getContext();
+        setupMatrixTable(generatingMatrixTable, context.getG(), context.getK(), context.getN());
+        setupMatrixTable(parityCheckMatrixTable, context.getH(), context.getN() - context.getK(), context.getN());
         setupCosetLeaderTable();
     }
 
@@ -67,24 +66,32 @@ public class FxTableInterface {
         column.setOnEditCommit(event -> {
             Integer[] row = event.getRowValue();
             Integer newValue = event.getNewValue();
-            if (newValue != null && (newValue == 0 || newValue == 1)) {
-                row[currentCol] = newValue;
-                data.getG()[event.getTablePosition().getRow()][currentCol] = newValue;
-                data.setG(data.getG());
-                updateMatrix();
+            int q = workspace.getContext().getQ();
+            if (newValue != null && newValue >= 0 && newValue < q) {
+                int[][] G = workspace.getContext().getG();
+                G[event.getTablePosition().getRow()][currentCol] = newValue;
+                if (updateMatrix(G)) {
+                    row[currentCol] = newValue;
+                }
             } else {
-                showAlert("Please enter only 0 or 1.");
+                showAlert("Please enter only symbols from 0 to " + (q - 1) + ".");
             }
             table.refresh();
         });
         return column;
     }
 
-    private void updateMatrix() {
-        data.generateParityCheckMatrix();
-        setupMatrixTable(parityCheckMatrixTable, data.getH(), data.getN() - data.getK(), data.getN());
-        data.generateCosetLeaders();
+    private boolean updateMatrix(int[][] G) {
+        try {
+            workspace.setGenerator(G);
+        } catch (IllegalArgumentException e) {
+            showAlert(e.getMessage());
+            return false;
+        }
+        CodeContext context = workspace.getContext();
+        setupMatrixTable(parityCheckMatrixTable, context.getH(), context.getN() - context.getK(), context.getN());
         setupCosetLeaderTable();
+        return true;
     }
 
     private void setupCosetLeaderTable() {
@@ -103,9 +110,15 @@ public class FxTableInterface {
         weightColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().weight()).asString());
         cosetLeaderTable.getColumns().add(weightColumn);
 
-        cosetLeaderTable.getItems().addAll(data.getCosetLeaders().values());
+        CodeContext context = workspace.getContext();
+        if (context.getFieldSyndromeDecoder() != null) {
+            cosetLeaderTable.getItems().addAll(context.getFieldSyndromeDecoder().getCosetLeaders());
+            totalCosetLeaders.setText(String.valueOf(context.getFieldSyndromeDecoder().getAssignedCount()));
+        } else {
+            cosetLeaderTable.getItems().addAll(context.getCosetLeaders().getCosetLeaders());
+            totalCosetLeaders.setText(String.valueOf(context.getCosetLeaders().getAssignedCount()));
+        }
         cosetLeaderTable.getSortOrder().add(weightColumn);
-        totalCosetLeaders.setText(String.valueOf(data.getCosetLeaders().size()));
     }
 
     private void showAlert(String message) {
@@ -1,17 +1,23 @@
 package ui;
 
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.TextField;
 import javafx.stage.FileChooser;
-import processor.Data;
+import processor.MappedFileSink;
+import processor.PackedSink;
+import processor.Trace;
+import processor.TransmissionSession;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 public class FxUserInterface {
-    private final Data data;
+    private final Workspace workspace;
     public TextField errorProbabilityTextField;
     public ComboBox<String> inputTypeComboBox;
     public TextField inputTextField;
@@ -30,16 +36,20 @@ public class FxUserInterface {
     public TextField noCodingErrorPositionTextField;
     public TextField blocksDecodedTextField;
     public TextField withoutCodingBlocksDecodedTextField;
+    private Task<Void> processing;
+    /** Input type and text the session's input was last built from. */
+    private String blockInputType;
+    private String blockInput;
 
-    public FxUserInterface() {
-        this.data = Data.getInstance();
+    public FxUserInterface(Workspace workspace) {
+        this.workspace = workspace;
     }
 
     @FXML
     public void initialize() {
         inputTypeComboBox.getSelectionModel().selectFirst();
-        alphabetSizeTextField.setText(alphabetSizeTextField.getText() + data.getQ());
-        errorProbabilityTextField.setText(errorProbabilityTextField.getText() + data.getPe());
+        alphabetSizeTextField.setText(alphabetSizeTextField.getText() + workspace.getQ());
+        errorProbabilityTextField.setText(errorProbabilityTextField.getText() + workspace.getPe());
         addListeners();
     }
 
@@ -61,14 +71,18 @@ public class FxUserInterface {
         if (newValue.isBlank()) {
             return;
         }
-        data.setBlockWithoutCodeAndError(parseStringToBits(newValue));
+        if (workspace.getSession() != null) {
+            workspace.getSession().setBlockWithoutCodeAndError(parseStringToBits(newValue));
+        }
     }
 
     private void updateWithErrorBlock(String newValue) {
         if (newValue.isBlank()) {
             return;
         }
-        data.setBlockWithError(parseStringToBits(newValue));
+        if (workspace.getSession() != null) {
+            workspace.getSession().setBlockWithError(parseStringToBits(newValue));
+        }
     }
 
     private void updateAlphabetSize(String newValue) {
@@ -76,7 +90,11 @@ public class FxUserInterface {
             showAlert("Please enter a valid alphabet size.");
             return;
         }
-        data.setQ(Integer.parseInt(newValue));
+        try {
+            workspace.setQ(Integer.parseInt(newValue));
+        } catch (IllegalArgumentException e) {
+            showAlert(e.getMessage());
+        }
     }
 
     private void updateProbability(String newValue) {
@@ -84,7 +102,7 @@ public class FxUserInterface {
             showAlert("Please enter a valid error probability.");
             return;
         }
-        data.setPe(Double.parseDouble(newValue));
+        workspace.setPe(Double.parseDouble(newValue));
     }
 
     @FXML
@@ -95,9 +113,10 @@ public class FxUserInterface {
             case "Vector" -> "Vector (e.g., 1, 0, 1)";
             case "Text" -> "Enter text";
             case "Image" -> handleImageInput();
+            case "File" -> handleFileInput();
             default -> "Enter input";
         });
-        System.out.println("Selected input type: " + selectedType);
+        Trace.event(Trace.Level.DEBUG, "Selected input type: " + selectedType);
     }
 
     private String handleImageInput() {
@@ -114,66 +133,137 @@ public class FxUserInterface {
         return "Enter image path";
     }
 
+    private String handleFileInput() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Select File");
+
+        File selectedFile = fileChooser.showOpenDialog(inputTextField.getScene().getWindow());
+        if (selectedFile != null) {
+            inputTextField.setText(selectedFile.getPath());
+        }
+        return "Enter file path";
+    }
+
     @FXML
     public void encodeInput() {
-        if (data.getG() == null) {
+        if (isProcessing()) {
+            return;
+        }
+        if (workspace.getContext() == null) {
             showAlert("Please generate the generating matrix first.");
             return;
         }
-        data.encodeBlock();
-        encodedBlockTextField.setText(Arrays.toString(data.getEncodedBlock()));
+        TransmissionSession session = workspace.getSession();
+        session.encodeBlock();
+        encodedBlockTextField.setText(Arrays.toString(session.getEncodedBlock()));
     }
 
     @FXML
     public void sendEncodedBlock() {
-        data.introduceErrors();
-        withErrorTextField.setText(Arrays.toString(data.getBlockWithError()));
-        withoutCodeErrorTextField.setText(Arrays.toString(data.getBlockWithoutCodeAndError()));
-        errorCountTextField.setText(String.valueOf(data.getErrorCount()));
-        errorPositionTextField.setText(Arrays.toString(data.getErrorPositions()));
-        noCodingErrorCountTextField.setText(String.valueOf(data.getNoCodingErrorCount()));
-        noCodingErrorPositionTextField.setText(Arrays.toString(data.getNoCodingErrorPositions()));
+        if (isProcessing()) {
+            return;
+        }
+        TransmissionSession session = workspace.getSession();
+        session.introduceErrors();
+        withErrorTextField.setText(Arrays.toString(session.getBlockWithError()));
+        withoutCodeErrorTextField.setText(Arrays.toString(session.getBlockWithoutCodeAndError()));
+        showErrors(session);
     }
 
     @FXML
     public void decodeBlock() {
-        data.setBlockWithError(parseStringToBits(withErrorTextField.getText()));
-        data.setBlockWithoutCodeAndError(parseStringToBits(withoutCodeErrorTextField.getText()));
-        errorCountTextField.setText(String.valueOf(data.getErrorCount()));
-        errorPositionTextField.setText(Arrays.toString(data.getErrorPositions()));
-        noCodingErrorCountTextField.setText(String.valueOf(data.getNoCodingErrorCount()));
-        noCodingErrorPositionTextField.setText(Arrays.toString(data.getNoCodingErrorPositions()));
-
-        data.decodeBlock();
-        correctedBlockTextField.setText(Arrays.toString(data.getCorrectedBlock()));
-        decodedBlockTextField.setText(Arrays.toString(data.getDecodedBlock()));
-        decodedTextField.setText(String.valueOf(data.getDecodedString()));
-        withoutCodingTextField.setText(String.valueOf(data.getWithoutCodingString()));
-        blocksDecodedTextField.setText(Arrays.toString(data.getDecodedBlocks().stream()
-                .flatMapToInt(Arrays::stream)
-                .toArray()));
-        withoutCodingBlocksDecodedTextField.setText(Arrays.toString(data.getBlocksWithoutCode().stream()
-                .flatMapToInt(Arrays::stream)
-                .toArray()));
-
-        if (data.getCurrentBitPosition() >= data.getInputBits().length) {
-            showAlert("All blocks have been processed.");
-            if (inputTypeComboBox.getValue().equals("Image")) {
-                data.writeImage();
-            }
+        if (isProcessing()) {
+            return;
+        }
+        TransmissionSession session = workspace.getSession();
+        session.setBlockWithError(parseStringToBits(withErrorTextField.getText()));
+        session.setBlockWithoutCodeAndError(parseStringToBits(withoutCodeErrorTextField.getText()));
+        showErrors(session);
+
+        session.decodeBlock();
+        showDecoded(session);
+    }
+
+    private void showErrors(TransmissionSession session) {
+        errorCountTextField.setText(String.valueOf(session.getErrorCount()));
+        errorPositionTextField.setText(Arrays.toString(session.getErrorPositions()));
+        noCodingErrorCountTextField.setText(String.valueOf(session.getNoCodingErrorCount()));
+        noCodingErrorPositionTextField.setText(Arrays.toString(session.getNoCodingErrorPositions()));
+    }
+
+    private void showDecoded(TransmissionSession session) {
+        correctedBlockTextField.setText(Arrays.toString(session.getCorrectedBlock()));
+        decodedBlockTextField.setText(Arrays.toString(session.getDecodedBlock()));
+        if (session.getDecodedOutput() instanceof PackedSink decoded
+                && session.getWithoutCodeOutput() instanceof PackedSink withoutCode) {
+            decodedTextField.setText(String.valueOf(decoded.toText()));
+            withoutCodingTextField.setText(String.valueOf(withoutCode.toText()));
+            blocksDecodedTextField.setText(decoded.toString());
+            withoutCodingBlocksDecodedTextField.setText(withoutCode.toString());
+        }
+
+        if (!session.hasNextBlock()) {
+            session.closeOutput();
+            showAlert(session.getDecodedOutput() instanceof MappedFileSink file
+                    ? "All blocks have been processed. Decoded output saved as " + file.getPath() + "."
+                    : "All blocks have been processed.");
         }
     }
 
     public void setNextBlock() {
+        if (isProcessing()) {
+            return;
+        }
         String input = inputTextField.getText();
         if (input.isBlank()) {
             showAlert("Please enter a valid input.");
             return;
         }
-        data.generateInputBits(inputTypeComboBox.getValue(), input);
+        if (workspace.getContext() == null) {
+            showAlert("Please generate the generating matrix first.");
+            return;
+        }
+        TransmissionSession session = workspace.getSession();
+        String inputType = inputTypeComboBox.getValue();
+        // Reading a file or image again on every step would map or decode it again
+        if (session.getCurrentBitPosition() == 0 || !inputType.equals(blockInputType) || !input.equals(blockInput)) {
+            session.generateInputBits(inputType, input);
+            blockInputType = inputType;
+            blockInput = input;
+        }
+        if (session.getCurrentBitPosition() == 0 && !useStreamingOutput(session)) {
+            return;
+        }
+
+        session.nextBlock();
+        currentBlockTextField.setText(Arrays.toString(session.getBlock()));
+    }
 
-        data.nextBlock();
-        currentBlockTextField.setText(Arrays.toString(data.getBlock()));
+    /**
+     * Streams the output of image and file input into images and mapped files instead of memory.
+     * @return false if the input could not be read
+     */
+    private boolean useStreamingOutput(TransmissionSession session) {
+        String inputType = inputTypeComboBox.getValue();
+        if (!inputType.equals("Image") && !inputType.equals("File")) {
+            return true;
+        }
+        if (session.getInput().length() == 0) {
+            showAlert(inputType.equals("Image") ? "Could not read the image." : "Could not read the file or it is empty.");
+            return false;
+        }
+        if (inputType.equals("Image")) {
+            session.useImageOutput();
+            return true;
+        }
+        Path name = Path.of(inputTextField.getText().trim()).getFileName();
+        try {
+            session.useFileOutput(Path.of("file", "decoded_" + name), Path.of("file", "without_code_" + name));
+        } catch (IOException e) {
+            showAlert("Could not create the output files: " + e.getMessage());
+            return false;
+        }
+        return true;
     }
 
     private void showAlert(String message) {
@@ -184,26 +274,81 @@ public class FxUserInterface {
         alert.showAndWait();
     }
 
+    /**
+     * Sends the whole input through the pipeline on a background thread and shows the last block
+     * when it is done.
+     */
     public void processInput() {
+        if (isProcessing()) {
+            return;
+        }
+        String input = inputTextField.getText();
+        if (input.isBlank()) {
+            showAlert("Please enter a valid input.");
+            return;
+        }
+        if (workspace.getContext() == null) {
+            showAlert("Please generate the generating matrix first.");
+            return;
+        }
         clearInput();
-        do {
-            setNextBlock();
-            encodeInput();
-            sendEncodedBlock();
-            decodeBlock();
-        } while (data.getCurrentBitPosition() < data.getInputBits().length);
+        TransmissionSession session = workspace.getSession();
+        session.generateInputBits(inputTypeComboBox.getValue(), input);
+        if (!useStreamingOutput(session)) {
+            return;
+        }
+        processing = new Task<>() {
+            @Override
+            protected Void call() {
+                workspace.getPipeline().run(session);
+                return null;
+            }
+        };
+        processing.setOnSucceeded(event -> showLastBlock(session));
+        processing.setOnFailed(event -> {
+            session.closeOutput();
+            session.clear();
+            showAlert("Processing failed: " + processing.getException().getMessage());
+        });
+        Thread thread = new Thread(processing, "process-input");
+        thread.setDaemon(true);
+        thread.start();
+    }
 
-        data.setCurrentBitPosition(0);
+    private boolean isProcessing() {
+        if (processing != null && processing.isRunning()) {
+            showAlert("The input is still being processed.");
+            return true;
+        }
+        return false;
+    }
+
+    private void showLastBlock(TransmissionSession session) {
+        if (session.getBlock() == null) {
+            session.closeOutput();
+            return;
+        }
+        currentBlockTextField.setText(Arrays.toString(session.getBlock()));
+        encodedBlockTextField.setText(Arrays.toString(session.getEncodedBlock()));
+        withErrorTextField.setText(Arrays.toString(session.getBlockWithError()));
+        withoutCodeErrorTextField.setText(Arrays.toString(session.getBlockWithoutCodeAndError()));
+        showErrors(session);
+        showDecoded(session);
     }
 
     public void clearInput() {
+        if (isProcessing()) {
+            return;
+        }
         clear(
                 currentBlockTextField, encodedBlockTextField, withErrorTextField, correctedBlockTextField, decodedBlockTextField,
                 withoutCodeErrorTextField, decodedTextField, withoutCodingTextField, errorCountTextField,
                 errorPositionTextField, noCodingErrorCountTextField, noCodingErrorPositionTextField,
                 blocksDecodedTextField, withoutCodingBlocksDecodedTextField
         );
-        data.clear();
+        if (workspace.getSession() != null) {
+            workspace.getSession().clear();
+        }
     }
 
     private void clear(TextField... textFields) {
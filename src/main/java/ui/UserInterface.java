@@ -1,13 +1,27 @@
 package ui;
 
-import processor.Data;
+import processor.CodeContext;
+import processor.CosetLeaderBuilder;
+import processor.CosetLeaderTable;
+import processor.DecodingStrategy;
+import processor.EncoderDecoder;
+import processor.LdpcCode;
+import processor.MappedFileSink;
+import processor.PackedSink;
+import processor.TextSink;
+import processor.Trace;
+import processor.TransmissionSession;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Scanner;
+import java.util.concurrent.CancellationException;
 
 public class UserInterface {
     private final Scanner scanner = new Scanner(System.in);
-    private final Data data = Data.getInstance();
+    private final Workspace workspace = new Workspace();
+    private final EncoderDecoder encoderDecoder = new EncoderDecoder();
     private String inputType;
 
     public void start() {
@@ -26,35 +40,54 @@ public class UserInterface {
                 case 4 -> changeProbability();
                 case 5 -> changeAlphabetSize();
                 case 6 -> toggleDebugMode();
+                case 7 -> toggleDecodingStrategy();
+                case 8 -> generateLdpcCode();
+                case 9 -> generateHammingCode();
+                case 10 -> generateBchCode();
+                case 11 -> changeCorrectionRadius();
+                case 12 -> changeChannelSeed();
+                case 13 -> changeTrace();
                 default -> System.out.println("Invalid choice. Please try again.");
             }
         }
     }
 
     private void displayMainMenu() {
+        CodeContext context = workspace.getContext();
+        TransmissionSession session = workspace.getSession();
         System.out.printf("%n%nProbability of error: %.5f%n" +
                         "Number of symbols in the alphabet: %d%n" +
                         "Generator matrix: %s%n" +
                         "Input vector length: %d%n" +
                         "Input vector: %s%n%n",
-                data.getPe(), data.getQ(),
-                data.getG() != null ? "\n" + data.getEncoderDecoder().printMatrix(data.getG()) : "Empty",
-                data.getK(),
-                data.getBlock() != null ? Arrays.toString(data.getBlock()) : "Empty");
+                workspace.getPe(), workspace.getQ(),
+                context == null ? "Empty"
+                        : !context.hasCosetLeaders() ? String.format("%d x %d (decoded without coset leaders)", context.getK(), context.getN())
+                        : "\n" + encoderDecoder.printMatrix(context.getG()),
+                workspace.getK(),
+                session != null && session.getBlock() != null ? Arrays.toString(session.getBlock()) : "Empty");
 
         System.out.printf("""
                 \nChoose an option:
-                1. Input (vector, text, image) to process
+                1. Input (vector, text, image, file) to process
                 2. Enter generating matrix
                 3. Generate generating matrix
                 4. Change probability of error
                 5. Change number of symbols in the alphabet
                 6. Debug mode (currently %s)
-                Choice:\s""", data.isDebugMode() ? "ON" : "OFF");
+                7. Decoding strategy (currently %s)
+                8. Generate LDPC code
+                9. Generate Hamming code
+                10. Generate BCH code
+                11. Coset leader correction radius (currently %s)
+                12. Channel seed (currently %s)
+                13. Trace (currently %s)
+                Choice:\s""", workspace.isDebugMode() ? "ON" : "OFF", workspace.getDecodingStrategy(), describeCorrectionRadius(),
+                workspace.getChannelSeed() != null ? workspace.getChannelSeed() : "random", describeTrace());
     }
 
     private void inputMenu() {
-        if (data.getG() == null) {
+        if (workspace.getContext() == null) {
             System.out.println("Error: Please enter the generating matrix first.");
             mainMenu();
         }
@@ -67,7 +100,9 @@ public class UserInterface {
                 case 1 -> processVector();
                 case 2 -> processText();
                 case 3 -> processImage();
-                case 4 -> {
+                case 4 -> processTextFile();
+                case 5 -> processFile();
+                case 6 -> {
                     System.out.println("Exiting...");
                     return;
                 }
@@ -82,50 +117,103 @@ public class UserInterface {
                 1. Process Vector
                 2. Process Text
                 3. Process Image
-                4. Back to main menu
+                4. Process Text File
+                5. Process File
+                6. Back to main menu
                 Choice:\s""");
     }
 
     private void generateMatrix() {
         System.out.print("Enter the number of columns (n): ");
-        data.setN(scanner.nextInt());
+        workspace.setN(scanner.nextInt());
         System.out.print("Enter the number of rows (k): ");
-        data.setK(scanner.nextInt());
+        workspace.setK(scanner.nextInt());
         scanner.nextLine();
-        data.generateGeneratingMatrix();
-        data.generateParityCheckMatrix();
-        data.generateCosetLeaders();
+        workspace.generateCode();
+    }
+
+    private void generateLdpcCode() {
+        try {
+            System.out.print("Enter the number of columns (n): ");
+            int n = scanner.nextInt();
+            System.out.print("Enter the number of checks per bit (column weight): ");
+            int columnWeight = scanner.nextInt();
+            System.out.print("Enter the number of bits per check (row weight): ");
+            int rowWeight = scanner.nextInt();
+            System.out.print("Decoder (1 = bit flipping, 2 = min-sum): ");
+            LdpcCode.Algorithm algorithm = scanner.nextInt() == 1 ? LdpcCode.Algorithm.BIT_FLIPPING : LdpcCode.Algorithm.MIN_SUM;
+            scanner.nextLine();
+            workspace.generateLdpcCode(n, columnWeight, rowWeight, algorithm);
+            System.out.printf("Generated LDPC code with n = %d, k = %d%n", workspace.getN(), workspace.getK());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+        } catch (Exception e) {
+            System.out.println("Error: Invalid input. Please try again.");
+            scanner.nextLine();
+        }
+    }
+
+    private void generateHammingCode() {
+        try {
+            System.out.print("Enter the number of parity bits (r): ");
+            int r = scanner.nextInt();
+            scanner.nextLine();
+            workspace.generateHammingCode(r);
+            System.out.printf("Generated Hamming code with n = %d, k = %d%n", workspace.getN(), workspace.getK());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+        } catch (Exception e) {
+            System.out.println("Error: Invalid input. Please try again.");
+            scanner.nextLine();
+        }
+    }
+
+    private void generateBchCode() {
+        try {
+            System.out.print("Enter the field degree (m, n = 2^m - 1): ");
+            int m = scanner.nextInt();
+            System.out.print("Enter the number of correctable errors (t): ");
+            int t = scanner.nextInt();
+            scanner.nextLine();
+            workspace.generateBchCode(m, t);
+            System.out.printf("Generated BCH code with n = %d, k = %d%n", workspace.getN(), workspace.getK());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+        } catch (Exception e) {
+            System.out.println("Error: Invalid input. Please try again.");
+            scanner.nextLine();
+        }
     }
 
     private void enterMatrix() {
         try {
             System.out.print("Enter the number of columns (n): ");
-            data.setN(scanner.nextInt());
+            int n = scanner.nextInt();
             System.out.print("Enter the number of rows (k): ");
-            data.setK(scanner.nextInt());
+            int k = scanner.nextInt();
             scanner.nextLine();
 
-            int[][] matrix = new int[data.getK()][data.getN()];
-            if (data.getK() > data.getN()) {
+            int[][] matrix = new int[k][n];
+            if (k > n) {
                 System.out.println("Error: The number of rows (k) should be less than or equal to the number of columns (n).");
                 return;
             }
 
-            System.out.println("Enter the matrix row by row (only 0s and 1s):");
-            for (int i = 0; i < data.getK(); i++) {
+            System.out.printf("Enter the matrix row by row (only symbols 0 to %d):%n", workspace.getQ() - 1);
+            for (int i = 0; i < k; i++) {
                 String[] numbers = scanner.nextLine().trim().split("\\s+");
-                if (numbers.length != data.getN()) {
+                if (numbers.length != n) {
                     System.out.println("Error: Incorrect number of columns. Please enter the row again.");
                     i--;
                     continue;
                 }
-                for (int j = 0; j < data.getN(); j++) {
+                for (int j = 0; j < n; j++) {
                     matrix[i][j] = Integer.parseInt(numbers[j]);
                 }
             }
-            data.setG(matrix);
-            data.generateParityCheckMatrix();
-            data.generateCosetLeaders();
+            workspace.setGenerator(matrix);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
         } catch (Exception e) {
             System.out.println("Error: Invalid input. Please try again.");
             scanner.nextLine();
@@ -134,25 +222,104 @@ public class UserInterface {
 
     private void changeProbability() {
         System.out.print("Enter the new probability of error: ");
-        data.setPe(scanner.nextDouble());
+        workspace.setPe(scanner.nextDouble());
         scanner.nextLine();
     }
 
     private void changeAlphabetSize() {
-        System.out.print("Enter the new number of symbols in the alphabet: ");
-        data.setQ(scanner.nextInt());
+        System.out.print("Enter the new number of symbols in the alphabet (a prime power): ");
+        int q = scanner.nextInt();
         scanner.nextLine();
+        try {
+            workspace.setQ(q);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
     }
 
     private void toggleDebugMode() {
-        data.setDebugMode(!data.isDebugMode());
+        workspace.setDebugMode(!workspace.isDebugMode());
+    }
+
+    private String describeTrace() {
+        if (workspace.getTraceLevel() == null) {
+            return "OFF";
+        }
+        return String.format("%s, %s to %s", workspace.getTraceLevel(), workspace.getTraceFormat(),
+                workspace.getTraceFile() != null ? workspace.getTraceFile() : "console");
+    }
+
+    private void changeTrace() {
+        System.out.print("Enter the trace level (0 = off, 1 = errors, 2 = info, 3 = every block): ");
+        int level = getUserChoice();
+        if (level < 0 || level > Trace.Level.values().length) {
+            System.out.println("Error: Invalid trace level.");
+            return;
+        }
+        Trace.Format format = Trace.Format.TEXT;
+        Path file = null;
+        if (level > 0) {
+            System.out.print("Enter the trace file (empty for the console): ");
+            String path = scanner.nextLine().trim();
+            if (!path.isEmpty()) {
+                file = Path.of(path);
+                System.out.print("Record format (1 = text, 2 = binary): ");
+                format = getUserChoice() == 2 ? Trace.Format.BINARY : Trace.Format.TEXT;
+            }
+        }
+        try {
+            workspace.setTrace(level > 0 ? Trace.Level.values()[level - 1] : null, format, file);
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
+    private void toggleDecodingStrategy() {
+        workspace.setDecodingStrategy(workspace.getDecodingStrategy() == DecodingStrategy.STEP_BY_STEP
+                ? DecodingStrategy.COSET_LEADER
+                : DecodingStrategy.STEP_BY_STEP);
+    }
+
+    private String describeCorrectionRadius() {
+        return switch (workspace.getCorrectionRadius()) {
+            case CosetLeaderBuilder.UNBOUNDED -> "full table";
+            case CosetLeaderBuilder.FROM_MINIMUM_DISTANCE -> "from minimum distance";
+            default -> String.valueOf(workspace.getCorrectionRadius());
+        };
+    }
+
+    private void changeCorrectionRadius() {
+        System.out.print("Enter the correction radius (t >= 0, -1 = from minimum distance, -2 = full table): ");
+        int radius = scanner.nextInt();
+        scanner.nextLine();
+        if (radius < -2) {
+            System.out.println("Error: Invalid correction radius.");
+            return;
+        }
+        workspace.setCorrectionRadius(radius == -2 ? CosetLeaderBuilder.UNBOUNDED : radius);
+        workspace.rebuildCosetLeaders();
+        CosetLeaderTable cosetLeaders = workspace.getContext() != null ? workspace.getContext().getCosetLeaders() : null;
+        if (cosetLeaders != null) {
+            System.out.printf("Coset leaders up to weight %d: %d of %d syndromes%n", cosetLeaders.getRadius(),
+                    cosetLeaders.getAssignedCount(), cosetLeaders.size());
+        }
+    }
+
+    private void changeChannelSeed() {
+        System.out.print("Enter the channel seed (empty for random): ");
+        String seed = scanner.nextLine().trim();
+        try {
+            workspace.setChannelSeed(seed.isEmpty() ? null : Long.parseLong(seed));
+        } catch (NumberFormatException e) {
+            System.out.println("Error: Invalid seed.");
+        }
     }
 
     private void processVector() {
         inputType = "Vector";
         System.out.println("Enter the vector to encode:");
         String vector = scanner.nextLine();
-        data.generateInputBits(inputType, vector);
+        workspace.getSession().generateInputBits(inputType, vector);
         processInputBlocks();
     }
 
@@ -160,7 +327,9 @@ public class UserInterface {
         inputType = "Text";
         System.out.println("Enter the text to encode:");
         String text = scanner.nextLine();
-        data.generateInputBits(inputType, text);
+        TransmissionSession session = workspace.getSession();
+        session.generateInputBits(inputType, text);
+        session.setOutput(new TextSink(), new TextSink());
         processInputBlocks();
     }
 
@@ -168,27 +337,85 @@ public class UserInterface {
         inputType = "Image";
         System.out.println("Enter the path to the image file:");
         String imagePath = scanner.nextLine();
-        data.generateInputBits(inputType, imagePath);
+        TransmissionSession session = workspace.getSession();
+        session.generateInputBits(inputType, imagePath);
+        if (session.getInput().length() == 0) {
+            System.out.println("Error: Could not read the image.");
+            return;
+        }
+        session.useImageOutput();
+        processInputBlocks();
+    }
+
+    private void processTextFile() {
+        inputType = "Text file";
+        System.out.println("Enter the path to the text file:");
+        processFile(scanner.nextLine(), Path.of("text/text_decoded.txt"), Path.of("text/text_without_code.txt"));
+    }
+
+    private void processFile() {
+        inputType = "File";
+        System.out.println("Enter the path to the file:");
+        String path = scanner.nextLine().trim();
+        Path name = path.isEmpty() ? null : Path.of(path).getFileName();
+        if (name == null) {
+            System.out.println("Error: Please enter a file path.");
+            return;
+        }
+        processFile(path, Path.of("file", "decoded_" + name), Path.of("file", "without_code_" + name));
+    }
+
+    private void processFile(String path, Path decoded, Path withoutCode) {
+        TransmissionSession session = workspace.getSession();
+        session.generateInputBits(inputType, path.trim());
+        if (session.getInput().length() == 0) {
+            System.out.println("Error: Could not read the file or it is empty.");
+            return;
+        }
+        try {
+            session.useFileOutput(decoded, withoutCode);
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+            return;
+        }
         processInputBlocks();
     }
 
     private void processInputBlocks() {
-        while (data.getCurrentBitPosition() < data.getInputBits().length) {
-            data.nextBlock();
-            data.encodeBlock();
-            data.introduceErrors();
-            data.decodeBlock();
-        }
-        if (inputType.equals("Image")) {
-            data.writeImage();
-            System.out.println("Decoded image saved as img/img_decoded.png");
-        } else {
-            System.out.println("Decoded vector: " + Arrays.toString(data.getDecodedBlocks().stream()
-                    .flatMapToInt(Arrays::stream)
-                    .toArray()));
-            System.out.println("Decoded text (if have atleast 8 bits): " + data.getDecodedString());
-        }
-        data.clear();
+        TransmissionSession session = workspace.getSession();
+        boolean completed = false;
+        try {
+            workspace.getPipeline().run(session);
+            completed = true;
+        } catch (CancellationException e) {
+            System.out.println("Error: Processing was interrupted.");
+        } catch (IllegalStateException e) {
+            System.out.println("Error: Processing failed: " + (e.getCause() != null ? e.getCause() : e.getMessage()));
+        } finally {
+            session.closeOutput();
+            Trace.flush();
+        }
+        if (!completed) {
+            session.clear();
+            return;
+        }
+        switch (session.getDecodedOutput()) {
+            case PackedSink decoded -> {
+                System.out.println("Decoded vector: " + decoded);
+                System.out.println("Decoded text (if have atleast 8 bits): " + decoded.toText());
+            }
+            case TextSink decoded -> System.out.println("Decoded text: " + decoded.getText());
+            case MappedFileSink decoded -> System.out.println("Decoded output saved as " + decoded.getPath());
+            default -> System.out.println("Decoded image saved as img/img_decoded.png");
+        }
+        if (session.getStatistics().getUncorrectable() > 0) {
+            System.out.println("Blocks with detected but uncorrectable errors: " + session.getStatistics().getUncorrectable());
+        }
+        System.out.println("Statistics: " + session.getStatistics());
+        if (Trace.getDropped() > 0) {
+            System.out.println("Trace records dropped: " + Trace.getDropped());
+        }
+        session.clear();
     }
 
     private int getUserChoice() {
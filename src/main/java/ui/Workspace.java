@@ -0,0 +1,200 @@
+package ui;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import processor.BlockPipeline;
+import processor.CodeContext;
+import processor.CosetLeaderBuilder;
+import processor.DecodingStrategy;
+import processor.ErrorChannel;
+import processor.GaloisField;
+import processor.LdpcCode;
+import processor.Trace;
+import processor.TransmissionSession;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Settings chosen in a user interface and the code and stream they currently produce. The code
+ * is an immutable {@link CodeContext}; changing a setting replaces it or the session instead of
+ * mutating state other streams might be reading.
+ */
+@Getter
+public class Workspace {
+    private double pe = 0.0001;
+    private int q = 2;
+    @Setter
+    private int n;
+    @Setter
+    private int k;
+    /**
+     * Most detailed level traced, null when tracing is off.
+     */
+    private Trace.Level traceLevel;
+    private Trace.Format traceFormat = Trace.Format.TEXT;
+    private Path traceFile;
+    @Getter(AccessLevel.NONE)
+    private OutputStream traceOutput;
+    private DecodingStrategy decodingStrategy = DecodingStrategy.STEP_BY_STEP;
+    @Setter
+    private int correctionRadius = CosetLeaderBuilder.UNBOUNDED;
+    private Long channelSeed;
+    @Setter
+    private BlockPipeline pipeline = new BlockPipeline();
+
+    private CodeContext context;
+    private ErrorChannel channel;
+    private TransmissionSession session;
+
+    public void setPe(double pe) {
+        this.pe = pe;
+        resetChannel();
+    }
+
+    /**
+     * Sets the alphabet size; codes generated afterwards are over GF(q) when q &gt; 2.
+     * @param q number of symbols, a prime power
+     */
+    public void setQ(int q) {
+        GaloisField.of(q);
+        this.q = q;
+        resetChannel();
+    }
+
+    /**
+     * Seeds the channel so runs can be repeated; null draws a fresh seed.
+     * @param channelSeed seed of the error channel
+     */
+    public void setChannelSeed(Long channelSeed) {
+        this.channelSeed = channelSeed;
+        resetChannel();
+    }
+
+    /**
+     * @return whether every block is traced to the console
+     */
+    public boolean isDebugMode() {
+        return traceLevel == Trace.Level.DEBUG && traceFormat == Trace.Format.TEXT && traceFile == null;
+    }
+
+    /**
+     * Traces every block to the console, or turns tracing off.
+     * @param debugMode whether to trace
+     */
+    public void setDebugMode(boolean debugMode) {
+        try {
+            setTrace(debugMode ? Trace.Level.DEBUG : null, Trace.Format.TEXT, null);
+        } catch (IOException e) {
+            System.err.println("Failed to close trace file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the running trace, closing the file of the previous one.
+     * @param level  most detailed level to trace, null to turn tracing off
+     * @param format record format
+     * @param file   file to write, null for the console
+     * @throws IOException if the file cannot be opened
+     */
+    public void setTrace(Trace.Level level, Trace.Format format, Path file) throws IOException {
+        Trace.stop();
+        if (traceOutput != null) {
+            traceOutput.close();
+            traceOutput = null;
+        }
+        traceLevel = null;
+        traceFile = null;
+        if (level == null) {
+            return;
+        }
+        OutputStream output = System.out;
+        if (file != null) {
+            traceOutput = Files.newOutputStream(file);
+            output = traceOutput;
+        }
+        Trace.start(level, format, output);
+        traceLevel = level;
+        traceFormat = format;
+        traceFile = file;
+    }
+
+    public void setDecodingStrategy(DecodingStrategy decodingStrategy) {
+        this.decodingStrategy = decodingStrategy;
+        if (context != null) {
+            setContext(context.withDecodingStrategy(decodingStrategy));
+        }
+    }
+
+    /**
+     * @return channel over the alphabet of the current code, or of the chosen one before a code exists
+     */
+    public ErrorChannel getChannel() {
+        if (channel == null) {
+            int symbols = context != null ? context.getQ() : q;
+            channel = channelSeed != null ? new ErrorChannel(pe, symbols, channelSeed) : new ErrorChannel(pe, symbols);
+        }
+        return channel;
+    }
+
+    /**
+     * @return session of the current code, started on first use
+     */
+    public TransmissionSession getSession() {
+        if (session == null && context != null) {
+            session = new TransmissionSession(context, getChannel());
+        }
+        return session;
+    }
+
+    private void resetChannel() {
+        channel = null;
+        session = null;
+    }
+
+    private void setContext(CodeContext context) {
+        this.context = context;
+        this.n = context.getN();
+        this.k = context.getK();
+        resetChannel();
+    }
+
+    /**
+     * Generates a random k x n code over the current alphabet.
+     */
+    public void generateCode() {
+        setContext(CodeContext.generate(k, n, q, correctionRadius, decodingStrategy));
+    }
+
+    /**
+     * Replaces the code with the one generated by G over the current alphabet.
+     * @param G generator matrix
+     */
+    public void setGenerator(int[][] G) {
+        setContext(CodeContext.of(G, q, correctionRadius, decodingStrategy));
+    }
+
+    /**
+     * Rebuilds the coset leaders of the current code for the correction radius.
+     */
+    public void rebuildCosetLeaders() {
+        if (context != null) {
+            setContext(context.withCorrectionRadius(correctionRadius));
+        }
+    }
+
+    public void generateLdpcCode(int n, int columnWeight, int rowWeight, LdpcCode.Algorithm algorithm) {
+        setContext(CodeContext.ldpc(n, columnWeight, rowWeight, algorithm));
+    }
+
+    public void generateHammingCode(int r) {
+        setContext(CodeContext.hamming(r));
+    }
+
+    public void generateBchCode(int m, int t) {
+        setContext(CodeContext.bch(m, t));
+    }
+}
@@ -0,0 +1,68 @@
+package processor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class BatchEncoderTest {
+    /**
+     * k x n, with batches below, at and above the 64 lanes of a word.
+     */
+    private static final int[][] DIMENSIONS = {{1, 2}, {3, 7}, {7, 15}, {8, 16}, {9, 20}, {12, 24}, {17, 40},
+            {63, 100}, {64, 128}, {65, 130}, {100, 255}};
+    private static final int[] BATCH_SIZES = {1, 2, 63, 64, 65, 200};
+
+    private final EncoderDecoder encoderDecoder = new EncoderDecoder();
+    private final Random random = new Random(1);
+
+    @Test
+    void encodeBatchMatchesMatrixMultiplication() {
+        for (int[] dimensions : DIMENSIONS) {
+            int[][] G = randomMatrix(dimensions[0], dimensions[1]);
+            for (int size : BATCH_SIZES) {
+                int[][] messages = randomMatrix(size, dimensions[0]);
+                int[][] codewords = encoderDecoder.encodeBatch(messages, G);
+                int[][] fromPacked = encoderDecoder.encodeBatch(Bits.pack(messages), G);
+                for (int i = 0; i < size; i++) {
+                    assertArrayEquals(encoderDecoder.encode(messages[i], G), codewords[i],
+                            "k = " + dimensions[0] + ", n = " + dimensions[1] + ", batch of " + size + ", message " + i);
+                    assertArrayEquals(codewords[i], fromPacked[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void decodeBatchMatchesSingleDecoding() {
+        int[][] G = randomMatrix(8, 20);
+        while (BitMatrix.of(G).rank() < G.length) {
+            G = randomMatrix(8, 20);
+        }
+        int[][] H = encoderDecoder.generateParityCheckMatrix(encoderDecoder.toSystematic(G));
+        SyndromeDecoder decoder = new SyndromeDecoder(H, new CosetLeaderBuilder(H, false).build());
+        for (int size : BATCH_SIZES) {
+            int[][] received = randomMatrix(size, 20);
+            for (DecodingStrategy strategy : DecodingStrategy.values()) {
+                int[][] decoded = encoderDecoder.decodeBatch(received, H, decoder, strategy);
+                for (int i = 0; i < size; i++) {
+                    int[] r = received[i];
+                    assertArrayEquals(decoder.decode(r, strategy), decoded[i],
+                            () -> strategy + ", received " + Arrays.toString(r));
+                }
+            }
+        }
+    }
+
+    private int[][] randomMatrix(int rows, int columns) {
+        int[][] matrix = new int[rows][columns];
+        for (int[] row : matrix) {
+            for (int j = 0; j < columns; j++) {
+                row[j] = random.nextInt(2);
+            }
+        }
+        return matrix;
+    }
+}
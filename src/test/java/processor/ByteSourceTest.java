@@ -0,0 +1,43 @@
+package processor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class ByteSourceTest {
+    private final Random random = new Random(1);
+
+    @Test
+    void packedReadMatchesSymbolRead() {
+        byte[] bytes = new byte[300];
+        random.nextBytes(bytes);
+        ByteSource source = ByteSource.of(bytes);
+        for (int sample = 0; sample < 2000; sample++) {
+            int count = random.nextInt(200);
+            long position = random.nextInt((int) source.length() - count + 1);
+            int[] symbols = new int[count];
+            source.read(position, symbols, count);
+
+            // Stale words in the target must be overwritten
+            long[] packed = new long[Bits.words(count)];
+            Arrays.fill(packed, -1L);
+            source.read(position, packed, count);
+            assertArrayEquals(Bits.pack(symbols), packed, "position " + position + ", count " + count);
+        }
+    }
+
+    @Test
+    void defaultPackedReadMatchesSymbolRead() {
+        int[] symbols = new int[130];
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = random.nextInt(2);
+        }
+        long[] packed = new long[Bits.words(129)];
+        Arrays.fill(packed, -1L);
+        InputSource.of(symbols).read(1, packed, 129);
+        assertArrayEquals(Bits.pack(Arrays.copyOfRange(symbols, 1, 130)), packed);
+    }
+}
@@ -0,0 +1,97 @@
+package processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CosetLeaderCacheTest {
+    @TempDir
+    Path directory;
+
+    private final EncoderDecoder encoderDecoder = new EncoderDecoder();
+
+    @Test
+    void readsBackTheStoredTable() {
+        int[][] H = parityCheckMatrix(8, 21);
+        CosetLeaderCache cache = new CosetLeaderCache(directory, 4, 1L << 30);
+        CosetLeaderTable built = cache.getOrBuild(H, encoderDecoder::findCosetLeaders);
+
+        CosetLeaderTable read = cache.getOrBuild(H, h -> {
+            throw new AssertionError("table was rebuilt");
+        });
+        assertEquals(built.getAssignedCount(), read.getAssignedCount());
+        assertEquals(built.getRadius(), read.getRadius());
+        for (int s = 0; s < built.size(); s++) {
+            assertEquals(built.weight(s), read.weight(s));
+            assertArrayEquals(built.getPackedErrorPattern(s), read.getPackedErrorPattern(s));
+        }
+    }
+
+    @Test
+    void rebuildsACorruptedFile() throws IOException {
+        int[][] H = parityCheckMatrix(8, 21);
+        CosetLeaderCache cache = new CosetLeaderCache(directory, 4, 1L << 30);
+        cache.getOrBuild(H, encoderDecoder::findCosetLeaders);
+        Path file = files().get(0);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+
+        CosetLeaderTable rebuilt = new CosetLeaderBuilder(H).build();
+        assertSame(rebuilt, cache.getOrBuild(H, h -> rebuilt));
+    }
+
+    @Test
+    void verifiesFilesWrittenByAnotherInstance() throws IOException {
+        int[][] H = parityCheckMatrix(8, 21);
+        new CosetLeaderCache(directory, 4, 1L << 30).getOrBuild(H, encoderDecoder::findCosetLeaders);
+        Path file = files().get(0);
+        FileTime written = Files.getLastModifiedTime(file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+        Files.setLastModifiedTime(file, written);
+
+        CosetLeaderTable rebuilt = new CosetLeaderBuilder(H).build();
+        assertSame(rebuilt, new CosetLeaderCache(directory, 4, 1L << 30).getOrBuild(H, h -> rebuilt));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedFiles() throws IOException {
+        CosetLeaderCache cache = new CosetLeaderCache(directory, 2, 1L << 30);
+        for (int n = 20; n < 24; n++) {
+            cache.getOrBuild(parityCheckMatrix(n - 12, n), encoderDecoder::findCosetLeaders);
+        }
+        assertEquals(2, files().size());
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+
+    private int[][] parityCheckMatrix(int k, int n) {
+        Random random = new Random(n);
+        int[][] G = new int[k][n];
+        do {
+            for (int[] row : G) {
+                for (int j = 0; j < n; j++) {
+                    row[j] = random.nextInt(2);
+                }
+            }
+        } while (BitMatrix.of(G).rank() < k);
+        return encoderDecoder.generateParityCheckMatrix(encoderDecoder.toSystematic(G));
+    }
+}
@@ -0,0 +1,88 @@
+package processor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FieldSyndromeDecoderTest {
+    private final EncoderDecoder encoderDecoder = new EncoderDecoder();
+
+    @Test
+    void leadersHaveMinimumWeight() {
+        for (int[] code : new int[][]{{3, 3, 7}, {4, 3, 6}, {5, 2, 5}, {7, 2, 5}}) {
+            GaloisField field = GaloisField.of(code[0]);
+            int[][] G = encoderDecoder.generateGeneratingMatrix(code[1], code[2], field);
+            FieldMatrix.Systematic systematic = encoderDecoder.toSystematic(G, field);
+            int[][] H = encoderDecoder.generateParityCheckMatrix(systematic);
+            FieldSyndromeDecoder decoder = new FieldSyndromeDecoder(H, systematic, CosetLeaderBuilder.UNBOUNDED);
+
+            // Lightest vector of every coset, by enumerating all q^n vectors
+            int n = code[2];
+            int[] lightest = new int[decoder.getCosetLeaders().size()];
+            Arrays.fill(lightest, n + 1);
+            int[] vector = new int[n];
+            do {
+                int s = decoder.syndrome(vector);
+                lightest[s] = Math.min(lightest[s], weight(vector));
+            } while (next(vector, code[0]));
+
+            Random random = new Random(code[0]);
+            for (int sample = 0; sample < 1000; sample++) {
+                int[] r = new int[n];
+                for (int j = 0; j < n; j++) {
+                    r[j] = random.nextInt(code[0]);
+                }
+                int[] c = decoder.decode(r);
+                int distance = 0;
+                for (int j = 0; j < n; j++) {
+                    distance += r[j] != c[j] ? 1 : 0;
+                }
+                assertEquals(0, decoder.syndrome(c), () -> "not a codeword: " + Arrays.toString(c));
+                assertEquals(lightest[decoder.syndrome(r)], distance, () -> "received " + Arrays.toString(r));
+            }
+        }
+    }
+
+    @Test
+    void boundedTableCorrectsUpToItsRadius() {
+        GaloisField field = GaloisField.of(5);
+        int[][] G = encoderDecoder.generateGeneratingMatrix(3, 10, field);
+        FieldMatrix.Systematic systematic = encoderDecoder.toSystematic(G, field);
+        int[][] H = encoderDecoder.generateParityCheckMatrix(systematic);
+        FieldSyndromeDecoder decoder = new FieldSyndromeDecoder(H, systematic, CosetLeaderBuilder.FROM_MINIMUM_DISTANCE);
+
+        Random random = new Random(1);
+        int[] message = {1, 2, 3};
+        int[] codeword = encoderDecoder.encode(message, G, field);
+        for (int sample = 0; sample < 1000; sample++) {
+            int[] r = codeword.clone();
+            for (int e = 0; e < decoder.getRadius(); e++) {
+                int position = random.nextInt(r.length);
+                r[position] = field.add(r[position], 1 + random.nextInt(4));
+            }
+            int[] received = r;
+            assertEquals(Arrays.toString(codeword), Arrays.toString(decoder.decode(r)), () -> "received " + Arrays.toString(received));
+        }
+    }
+
+    private static int weight(int[] vector) {
+        int weight = 0;
+        for (int symbol : vector) {
+            weight += symbol != 0 ? 1 : 0;
+        }
+        return weight;
+    }
+
+    private static boolean next(int[] vector, int q) {
+        for (int i = 0; i < vector.length; i++) {
+            if (++vector[i] < q) {
+                return true;
+            }
+            vector[i] = 0;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,122 @@
+package processor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyndromeDecoderTest {
+    private static final int WORDS = 2000;
+
+    private final EncoderDecoder encoderDecoder = new EncoderDecoder();
+
+    @Test
+    void strategiesAgreeOnFullTable() {
+        Random random = new Random(1);
+        int[][] H = parityCheckMatrix(5, 15, random);
+        assertStrategiesAgree(H, new CosetLeaderBuilder(H, false).build(), random);
+    }
+
+    @Test
+    void strategiesAgreeOnTableBuiltInParallel() {
+        Random random = new Random(2);
+        int[][] H = parityCheckMatrix(14, 32, random);
+        assertStrategiesAgree(H, new CosetLeaderBuilder(H, true).build(), random);
+    }
+
+    @Test
+    void strategiesAgreeWithinMinimumDistance() {
+        Random random = new Random(3);
+        int[][] H = parityCheckMatrix(8, 20, random);
+        assertStrategiesAgree(H, new CosetLeaderBuilder(H, false).build(CosetLeaderBuilder.FROM_MINIMUM_DISTANCE), random);
+    }
+
+    @Test
+    void strategiesAgreeOnSparseTable() {
+        Random random = new Random(4);
+        int[][] H = parityCheckMatrix(8, 24, random);
+        CosetLeaderTable table = new CosetLeaderBuilder(H, false).build(2);
+        assertTrue(table.isSparse());
+        assertStrategiesAgree(H, table, random);
+    }
+
+    @Test
+    void stepByStepMatchesReferenceLoop() {
+        Random random = new Random(5);
+        for (int[] code : new int[][]{{3, 7}, {5, 15}, {8, 20}, {11, 24}}) {
+            int[][] H = parityCheckMatrix(code[0], code[1], random);
+            CosetLeaderTable table = new CosetLeaderBuilder(H, false).build();
+            SyndromeDecoder decoder = new SyndromeDecoder(H, table);
+            for (int i = 0; i < WORDS; i++) {
+                int[] r = new int[code[1]];
+                for (int j = 0; j < r.length; j++) {
+                    r[j] = random.nextInt(2);
+                }
+                assertArrayEquals(referenceStepByStep(r, H, table), decoder.decodeStepByStep(r),
+                        () -> "received " + Arrays.toString(r));
+            }
+        }
+    }
+
+    /**
+     * The original step-by-step loop: the syndrome is recomputed from H after every flip,
+     * and a syndrome without a leader counts as weight n + 1.
+     */
+    private static int[] referenceStepByStep(int[] r, int[][] H, CosetLeaderTable table) {
+        int n = r.length;
+        int[] rCopy = Arrays.copyOf(r, n);
+        for (int i = 0; ; i++) {
+            int w = referenceWeight(rCopy, H, table);
+            if (w == 0 || i >= n) {
+                return rCopy;
+            }
+            rCopy[i] ^= 1;
+            if (referenceWeight(rCopy, H, table) >= w) {
+                rCopy[i] ^= 1;
+            }
+        }
+    }
+
+    private static int referenceWeight(int[] r, int[][] H, CosetLeaderTable table) {
+        int s = 0;
+        for (int[] row : H) {
+            int bit = 0;
+            for (int j = 0; j < r.length; j++) {
+                bit ^= row[j] & r[j];
+            }
+            s = (s << 1) | bit;
+        }
+        return table.isAssigned(s) ? table.weight(s) : r.length + 1;
+    }
+
+    /**
+     * H of a random full-rank k x n generator matrix, which is almost never in systematic form.
+     */
+    private int[][] parityCheckMatrix(int k, int n, Random random) {
+        int[][] G = new int[k][n];
+        do {
+            for (int[] row : G) {
+                for (int j = 0; j < n; j++) {
+                    row[j] = random.nextInt(2);
+                }
+            }
+        } while (BitMatrix.of(G).rank() < k);
+        return encoderDecoder.generateParityCheckMatrix(encoderDecoder.toSystematic(G));
+    }
+
+    private static void assertStrategiesAgree(int[][] H, CosetLeaderTable table, Random random) {
+        SyndromeDecoder decoder = new SyndromeDecoder(H, table);
+        int n = H[0].length;
+        for (int i = 0; i < WORDS; i++) {
+            int[] r = new int[n];
+            for (int j = 0; j < n; j++) {
+                r[j] = random.nextInt(2);
+            }
+            assertArrayEquals(decoder.decode(r, DecodingStrategy.STEP_BY_STEP),
+                    decoder.decode(r, DecodingStrategy.COSET_LEADER), () -> "received " + Arrays.toString(r));
+        }
+    }
+}
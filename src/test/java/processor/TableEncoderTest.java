@@ -0,0 +1,72 @@
+package processor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class TableEncoderTest {
+    /**
+     * k x n, with k around the chunk of 8 rows and the word of 64 bits.
+     */
+    private static final int[][] DIMENSIONS = {{1, 2}, {3, 7}, {7, 15}, {8, 16}, {9, 20}, {12, 24}, {17, 40},
+            {63, 100}, {64, 128}, {65, 130}, {100, 255}};
+
+    private final EncoderDecoder encoderDecoder = new EncoderDecoder();
+    private final Random random = new Random(1);
+
+    @Test
+    void encodeMatchesMatrixMultiplication() {
+        for (int[] dimensions : DIMENSIONS) {
+            int[][] G = randomMatrix(dimensions[0], dimensions[1]);
+            TableEncoder encoder = new TableEncoder(G);
+            for (int sample = 0; sample < 100; sample++) {
+                int[] m = randomVector(dimensions[0]);
+                int[] expected = encoderDecoder.encode(m, G);
+                assertArrayEquals(expected, encoder.encode(m), () -> "G " + Arrays.deepToString(G) + ", m " + Arrays.toString(m));
+                assertArrayEquals(Bits.pack(expected), encoder.encode(Bits.pack(m)));
+            }
+        }
+    }
+
+    @Test
+    void contextEncoderStaysBoundToItsG() {
+        int[][] G = randomMatrix(12, 24);
+        while (BitMatrix.of(G).rank() < G.length) {
+            G = randomMatrix(12, 24);
+        }
+        int[][] original = G.clone();
+        for (int i = 0; i < G.length; i++) {
+            original[i] = G[i].clone();
+        }
+        CodeContext context = CodeContext.of(G, 2, CosetLeaderBuilder.FROM_MINIMUM_DISTANCE, DecodingStrategy.COSET_LEADER);
+
+        // Editing the caller's matrix must not reach the precomputed tables
+        G[0][0] ^= 1;
+        G[5][7] ^= 1;
+        CodeContext edited = CodeContext.of(G, 2, CosetLeaderBuilder.FROM_MINIMUM_DISTANCE, DecodingStrategy.COSET_LEADER);
+        for (int sample = 0; sample < 100; sample++) {
+            int[] m = randomVector(G.length);
+            assertArrayEquals(encoderDecoder.encode(m, original), context.encode(m));
+            assertArrayEquals(encoderDecoder.encode(m, G), edited.encode(m));
+        }
+    }
+
+    private int[][] randomMatrix(int rows, int columns) {
+        int[][] matrix = new int[rows][];
+        for (int i = 0; i < rows; i++) {
+            matrix[i] = randomVector(columns);
+        }
+        return matrix;
+    }
+
+    private int[] randomVector(int length) {
+        int[] vector = new int[length];
+        for (int i = 0; i < length; i++) {
+            vector[i] = random.nextInt(2);
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,76 @@
+package processor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VectorBitKernelTest {
+    /**
+     * Bit lengths below one word, around the word and vector boundaries and above 1023.
+     */
+    private static final int[] LENGTHS = {1, 7, 63, 64, 65, 127, 128, 129, 255, 256, 257, 300, 511, 512, 513,
+            1000, 1023, 1024, 1025, 1600, 4099};
+    private static final int SAMPLES = 50;
+
+    private final BitKernel vector = new VectorBitKernel();
+    private final BitKernel scalar = new ScalarBitKernel();
+    private final Random random = new Random(1);
+
+    @Test
+    void parityMatchesScalar() {
+        for (int n : LENGTHS) {
+            for (int sample = 0; sample < SAMPLES; sample++) {
+                long[] a = randomVector(n);
+                long[] b = randomVector(n);
+                assertEquals(scalar.parity(a, b), vector.parity(a, b), "n = " + n);
+            }
+        }
+    }
+
+    @Test
+    void parityOfEdgeVectors() {
+        for (int n : LENGTHS) {
+            long[] ones = Bits.pack(ones(n));
+            long[] zeros = new long[Bits.words(n)];
+            assertEquals(n & 1, vector.parity(ones, ones), "n = " + n);
+            assertEquals(0, vector.parity(ones, zeros), "n = " + n);
+        }
+    }
+
+    @Test
+    void xorIntoMatchesScalar() {
+        for (int n : LENGTHS) {
+            int words = Bits.words(n);
+            for (int sample = 0; sample < SAMPLES; sample++) {
+                long[] dst = randomVector(n);
+                int offset = random.nextInt(3 * words + 1);
+                long[] src = new long[offset + words + random.nextInt(4)];
+                for (int i = 0; i < src.length; i++) {
+                    src[i] = random.nextLong();
+                }
+                long[] expected = dst.clone();
+                scalar.xorInto(expected, src, offset);
+                vector.xorInto(dst, src, offset);
+                assertArrayEquals(expected, dst, "n = " + n + ", offset = " + offset);
+            }
+        }
+    }
+
+    private long[] randomVector(int n) {
+        int[] bits = new int[n];
+        for (int i = 0; i < n; i++) {
+            bits[i] = random.nextInt(2);
+        }
+        return Bits.pack(bits);
+    }
+
+    private static int[] ones(int n) {
+        int[] bits = new int[n];
+        Arrays.fill(bits, 1);
+        return bits;
+    }
+}